@@ -0,0 +1,42 @@
+/*
+ * Copyright IBM Corporation 2020,2021
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ibm.research.kar.actor.runtime;
+
+/**
+ * The arguments of an actor method invocation, decoded by
+ * ActorArgumentsReader into an array that is passed as is to the spreading
+ * invoker of the method.
+ */
+public final class ActorArguments {
+
+	private final Object[] values;
+
+	ActorArguments(Object[] values) {
+		this.values = values;
+	}
+
+	public int size() {
+		return values.length;
+	}
+
+	/**
+	 * @return The arguments; the array is not copied
+	 */
+	Object[] values() {
+		return values;
+	}
+}
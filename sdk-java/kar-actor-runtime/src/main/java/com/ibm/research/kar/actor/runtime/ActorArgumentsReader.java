@@ -0,0 +1,78 @@
+/*
+ * Copyright IBM Corporation 2020,2021
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ibm.research.kar.actor.runtime;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+import java.util.Arrays;
+
+import javax.json.Json;
+import javax.json.stream.JsonParser;
+import javax.json.stream.JsonParser.Event;
+import javax.json.stream.JsonParserFactory;
+import javax.ws.rs.BadRequestException;
+import javax.ws.rs.Consumes;
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.ext.MessageBodyReader;
+import javax.ws.rs.ext.Provider;
+
+import com.ibm.research.kar.KarRest;
+
+/**
+ * Decodes the JSON array of arguments of an actor method invocation by
+ * streaming parser events straight into the argument array, without first
+ * building a JsonArray and copying its elements.
+ */
+@Provider
+@Consumes(KarRest.KAR_ACTOR_JSON)
+public class ActorArgumentsReader implements MessageBodyReader<ActorArguments> {
+
+	private static final JsonParserFactory parserFactory = Json.createParserFactory(null);
+
+	private static final Object[] NO_ARGUMENTS = new Object[0];
+
+	@Override
+	public boolean isReadable(Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
+		return type == ActorArguments.class;
+	}
+
+	@Override
+	public ActorArguments readFrom(Class<ActorArguments> type, Type genericType, Annotation[] annotations,
+			MediaType mediaType, MultivaluedMap<String, String> httpHeaders, InputStream entityStream)
+			throws IOException, WebApplicationException {
+		try (JsonParser parser = parserFactory.createParser(entityStream)) {
+			if (!parser.hasNext() || parser.next() != Event.START_ARRAY) {
+				throw new BadRequestException("Actor method arguments must be a JSON array");
+			}
+			// overloads are resolved by the number of arguments, so the array is sized as we go
+			Object[] values = NO_ARGUMENTS;
+			int size = 0;
+			for (Event event = parser.next(); event != Event.END_ARRAY; event = parser.next()) {
+				if (size == values.length) {
+					values = Arrays.copyOf(values, Math.max(4, size * 2));
+				}
+				// reads the whole value, including nested arrays and objects
+				values[size++] = parser.getValue();
+			}
+			return new ActorArguments(size == values.length ? values : Arrays.copyOf(values, size));
+		}
+	}
+}
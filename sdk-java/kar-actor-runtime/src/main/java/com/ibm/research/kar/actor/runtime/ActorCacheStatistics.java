@@ -0,0 +1,74 @@
+/*
+ * Copyright IBM Corporation 2020,2021
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ibm.research.kar.actor.runtime;
+
+/**
+ * A snapshot of the counters maintained by the ActorRegistry
+ */
+public final class ActorCacheStatistics {
+	private final long resident;
+	private final long hits;
+	private final long misses;
+	private final long evictions;
+	private final long idlePassivations;
+	private final long reclaimedBytes;
+
+	public ActorCacheStatistics(long resident, long hits, long misses, long evictions, long idlePassivations,
+			long reclaimedBytes) {
+		this.resident = resident;
+		this.hits = hits;
+		this.misses = misses;
+		this.evictions = evictions;
+		this.idlePassivations = idlePassivations;
+		this.reclaimedBytes = reclaimedBytes;
+	}
+
+	// number of actor instances currently in memory
+	public long getResident() {
+		return resident;
+	}
+
+	// lookups that found a resident instance
+	public long getHits() {
+		return hits;
+	}
+
+	// lookups that did not find a resident instance
+	public long getMisses() {
+		return misses;
+	}
+
+	// instances passivated to stay within the configured capacity
+	public long getEvictions() {
+		return evictions;
+	}
+
+	// instances passivated because they exceeded the idle timeout
+	public long getIdlePassivations() {
+		return idlePassivations;
+	}
+
+	// estimated shallow size in bytes of all passivated instances
+	public long getReclaimedBytes() {
+		return reclaimedBytes;
+	}
+
+	public String toString() {
+		return "{ resident: " + resident + ", hits: " + hits + ", misses: " + misses + ", evictions: " + evictions
+				+ ", idlePassivations: " + idlePassivations + ", reclaimedBytes: " + reclaimedBytes + " }";
+	}
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright IBM Corporation 2020,2021
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ibm.research.kar.actor.runtime;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.ibm.research.kar.actor.ActorInstance;
+
+/**
+ * A resident actor instance together with the bookkeeping the ActorRegistry
+ * needs to passivate it safely.
+ */
+public final class ActorEntry {
+
+	// the actor instance
+	private final ActorInstance instance;
+
+	// the model of the actor type
+	private final ActorModel model;
+
+	// CLOCK reference bit; set on access and cleared when the eviction hand passes
+	volatile boolean referenced = true;
+
+	// tick of the IdleActorSweeper at the most recent access
+	volatile long lastAccess;
+
+	// completed once the @Activate method, if any, has run; completed exceptionally if it failed
+	final CompletableFuture<Void> activated = new CompletableFuture<Void>();
+
+	// completed once the entry has been retired and its @Deactivate method, if any, has run
+	final CompletableFuture<Void> passivated = new CompletableFuture<Void>();
+
+	// completed once the entry has been retired and no invocation is running any more
+	final CompletableFuture<Void> drained = new CompletableFuture<Void>();
+
+	// number of in-flight invocations, with the RETIRED bit set once the entry has been retired
+	private static final int RETIRED = Integer.MIN_VALUE;
+	private final AtomicInteger pins = new AtomicInteger();
+
+	ActorEntry(ActorModel model, ActorInstance instance, long tick) {
+		this.model = model;
+		this.instance = instance;
+		this.lastAccess = tick;
+	}
+
+	public ActorInstance getInstance() {
+		return instance;
+	}
+
+	public ActorModel getModel() {
+		return model;
+	}
+
+	// record an access without writing to shared cache lines when nothing changed
+	void touch(long tick) {
+		if (!referenced) {
+			referenced = true;
+		}
+		if (lastAccess != tick) {
+			lastAccess = tick;
+		}
+	}
+
+	// prevent eviction while an invocation is running; fails if already retired
+	boolean pin() {
+		for (;;) {
+			int p = pins.get();
+			if (p < 0) {
+				return false;
+			}
+			if (pins.compareAndSet(p, p + 1)) {
+				return true;
+			}
+		}
+	}
+
+	void unpin() {
+		if (pins.decrementAndGet() == RETIRED) {
+			drained.complete(null);
+		}
+	}
+
+	// retire the entry only if no invocation is running
+	boolean retireIfIdle() {
+		if (pins.compareAndSet(0, RETIRED)) {
+			drained.complete(null);
+			return true;
+		}
+		return false;
+	}
+
+	// retire the entry even if invocations are running; drained completes once they
+	// have; fails if already retired, so only one caller deactivates the instance
+	boolean retire() {
+		for (;;) {
+			int p = pins.get();
+			if (p < 0) {
+				return false;
+			}
+			if (pins.compareAndSet(p, p | RETIRED)) {
+				if (p == 0) {
+					drained.complete(null);
+				}
+				return true;
+			}
+		}
+	}
+
+	boolean isRetired() {
+		return pins.get() < 0;
+	}
+}
@@ -0,0 +1,195 @@
+/*
+ * Copyright IBM Corporation 2020,2021
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ibm.research.kar.actor.runtime;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.json.Json;
+import javax.json.JsonObject;
+import javax.json.JsonObjectBuilder;
+import javax.json.JsonString;
+
+import com.ibm.research.kar.KarConfig;
+
+/**
+ * Encodes exceptions thrown by actor methods as
+ * {"error":true,"code":class,"message":..,"stack":..}.
+ *
+ * Under error storms rendering stack traces would dominate the cost of the
+ * error path, so the trace is only included for a sample of the exceptions of
+ * each type, at a bounded rate per type, and is rendered straight into a
+ * StringBuilder when the response is serialized.
+ */
+final class ActorErrorEncoder {
+
+	// maximum depth of the chain of causes that is rendered
+	private static final int MAX_CAUSES = 16;
+
+	private static final long WINDOW_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+	private static final ClassValue<TraceBudget> budgets = new ClassValue<TraceBudget>() {
+		@Override
+		protected TraceBudget computeValue(Class<?> type) {
+			return new TraceBudget();
+		}
+	};
+
+	private ActorErrorEncoder() {
+	}
+
+	/**
+	 * Encode an exception thrown by an actor method.
+	 *
+	 * @param t        The exception
+	 * @param boundary The class of the frame at which to shorten the trace
+	 * @param method   The method of the frame at which to shorten the trace
+	 */
+	static JsonObject encode(Throwable t, Class<?> boundary, String method) {
+		JsonObjectBuilder ro = Json.createObjectBuilder();
+		ro.add("error", true);
+		ro.add("code", t.getClass().getName());
+		ro.add("message", t.toString());
+		if (budgets.get(t.getClass()).tryAcquire()) {
+			ro.add("stack", new StackTrace(t, KarConfig.SHORTEN_ACTOR_STACKTRACES ? boundary.getName() : null, method));
+		}
+		return ro.build();
+	}
+
+	// per exception type sampling and rate limiting of stack traces
+	private static final class TraceBudget {
+		private final AtomicLong count = new AtomicLong();
+		private final AtomicLong windowStart = new AtomicLong(System.nanoTime());
+		private final AtomicInteger traces = new AtomicInteger();
+
+		boolean tryAcquire() {
+			long n = count.getAndIncrement();
+			int sample = KarConfig.ACTOR_ERROR_TRACE_SAMPLE;
+			if (sample > 1 && n % sample != 0) {
+				return false;
+			}
+			int limit = KarConfig.ACTOR_ERROR_TRACES_PER_SECOND;
+			if (limit <= 0) {
+				return true;
+			}
+			long now = System.nanoTime();
+			long start = windowStart.get();
+			if (now - start >= WINDOW_NANOS && windowStart.compareAndSet(start, now)) {
+				traces.set(0);
+			}
+			return traces.incrementAndGet() <= limit;
+		}
+	}
+
+	// A stack trace in the format of Throwable.printStackTrace, rendered on first use
+	private static final class StackTrace implements JsonString {
+		private final Throwable t;
+		private final String boundaryClass;
+		private final String boundaryMethod;
+		private String rendered;
+
+		StackTrace(Throwable t, String boundaryClass, String boundaryMethod) {
+			this.t = t;
+			this.boundaryClass = boundaryClass;
+			this.boundaryMethod = boundaryMethod;
+		}
+
+		@Override
+		public String getString() {
+			if (rendered == null) {
+				rendered = render();
+			}
+			return rendered;
+		}
+
+		@Override
+		public CharSequence getChars() {
+			return getString();
+		}
+
+		@Override
+		public ValueType getValueType() {
+			return ValueType.STRING;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			return obj instanceof JsonString && getString().equals(((JsonString) obj).getString());
+		}
+
+		@Override
+		public int hashCode() {
+			return getString().hashCode();
+		}
+
+		@Override
+		public String toString() {
+			return Json.createValue(getString()).toString();
+		}
+
+		private String render() {
+			StringBuilder sb = new StringBuilder(1024);
+			StackTraceElement[] frames = t.getStackTrace();
+			sb.append(t).append('\n');
+			// Elide all of the implementation details above the boundary frame
+			int end = frames.length;
+			if (boundaryClass != null) {
+				for (int i = 0; i < frames.length; i++) {
+					if (frames[i].getClassName().equals(boundaryClass) && frames[i].getMethodName().equals(boundaryMethod)) {
+						end = i + 1;
+						break;
+					}
+				}
+			}
+			appendFrames(sb, frames, 0, end);
+
+			Set<Throwable> seen = Collections.newSetFromMap(new IdentityHashMap<Throwable, Boolean>());
+			seen.add(t);
+			StackTraceElement[] enclosing = frames;
+			Throwable cause = t.getCause();
+			for (int depth = 0; cause != null && depth < MAX_CAUSES && seen.add(cause); depth++) {
+				StackTraceElement[] causeFrames = cause.getStackTrace();
+				// frames in common with the enclosing trace are elided, as printStackTrace does
+				int m = causeFrames.length - 1;
+				int n = enclosing.length - 1;
+				while (m >= 0 && n >= 0 && causeFrames[m].equals(enclosing[n])) {
+					m--;
+					n--;
+				}
+				sb.append("Caused by: ").append(cause).append('\n');
+				appendFrames(sb, causeFrames, 0, m + 1);
+				int common = causeFrames.length - 1 - m;
+				if (common != 0) {
+					sb.append("\t... ").append(common).append(" more\n");
+				}
+				enclosing = causeFrames;
+				cause = cause.getCause();
+			}
+			return sb.toString();
+		}
+
+		private static void appendFrames(StringBuilder sb, StackTraceElement[] frames, int start, int end) {
+			for (int i = start; i < end; i++) {
+				sb.append("\tat ").append(frames[i]).append('\n');
+			}
+		}
+	}
+}
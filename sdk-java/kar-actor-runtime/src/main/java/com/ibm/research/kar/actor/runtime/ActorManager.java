@@ -17,6 +17,7 @@
 package com.ibm.research.kar.actor.runtime;
 
 import java.lang.invoke.MethodHandle;
+import java.util.concurrent.Executor;
 
 import com.ibm.research.kar.actor.ActorInstance;
 
@@ -24,17 +25,32 @@ public interface ActorManager {
 	// get an existing actor instance
 	public ActorInstance getActor(String type, String id);
 
-	// allocate an actor instance -- does not invoke activate
-	public ActorInstance createActor(String type, String id);
+	// get an existing actor instance and prevent its passivation until released
+	public ActorInstance acquireActor(String type, String id);
+
+	// allow an acquired actor instance to be passivated again
+	public void releaseActor(ActorInstance actor);
+
+	// get an actor instance, allocating it and invoking activate if it is not resident;
+	// concurrent calls for the same actor share a single activation
+	public ActorInstance activateActor(String type, String id) throws Throwable;
 
 	// delete an actor instance -- deos not invoke deactivate
 	public boolean deleteActor(String type, String id);
 
+	// retire an actor instance and invoke deactivate, unless it is already being passivated
+	public boolean passivateActor(String type, String id) throws Throwable;
+
 	public boolean hasActorType(String type);
 
-	public MethodHandle getActorMethod(String type, String name, int numParams);
+	public RemoteMethod getActorMethod(String type, String name, int numParams);
 
 	public MethodHandle getActorActivateMethod(String type);
 
 	public MethodHandle getActorDeactivateMethod(String type);
+
+	public ActorCacheStatistics getCacheStatistics();
+
+	// executor for actor method invocations, or null to run them on the request thread
+	public Executor getInvocationExecutor();
 }
@@ -17,8 +17,13 @@
 package com.ibm.research.kar.actor.runtime;
 
 import java.lang.invoke.MethodHandle;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import com.ibm.research.kar.actor.ActorInstance;
 
@@ -30,8 +35,8 @@ public final class ActorModel {
 	// java.lang.Class for the Actor
 	private Class<ActorInstance> actorClass;
 
-	// Lookup for callable remote methods
-	private Map<String, MethodHandle> remoteMethods;
+	// Lookup for callable remote methods: name to overloads indexed by number of parameters
+	private Map<String, RemoteMethod[]> remoteMethods;
 
 	// Lookup for init method
 	private MethodHandle activateMethod;
@@ -39,13 +44,30 @@ public final class ActorModel {
 	// Lookup for deinit method
 	private MethodHandle deactivateMethod;
 
-	// Map of instances of this actor type indexed by id
-	private Map<String, ActorInstance> actorInstances;
+	// Map of instances of this actor type indexed by id; safe for concurrent use
+	private ConcurrentHashMap<String, ActorEntry> actorInstances;
 
+	// Resident instances in CLOCK order for eviction
+	private final ConcurrentLinkedQueue<ActorEntry> clock;
+
+	// Number of instances retired while still in the clock
+	private final AtomicInteger clockGarbage;
+
+	// Number of resident instances
+	private final AtomicInteger residentCount;
+
+	// Maximum number of resident instances (0 means unbounded)
+	private int maxResident;
+
+	// Estimated shallow size in bytes of an instance of actorClass
+	private long instanceSize;
 
 	public ActorModel() {
-		this.remoteMethods = new HashMap<String,MethodHandle>();
-		this.actorInstances = new HashMap<String,ActorInstance>();
+		this.remoteMethods = new HashMap<String,RemoteMethod[]>();
+		this.actorInstances = new ConcurrentHashMap<String,ActorEntry>();
+		this.clock = new ConcurrentLinkedQueue<ActorEntry>();
+		this.clockGarbage = new AtomicInteger();
+		this.residentCount = new AtomicInteger();
 	}
 
 	/*
@@ -67,13 +89,44 @@ public final class ActorModel {
 
 	public void setActorClass(Class<ActorInstance> cls) {
 		this.actorClass = cls;
+		this.instanceSize = estimateShallowSize(cls);
 	}
 
-	public Map<String, MethodHandle> getRemoteMethods() {
+	public long getInstanceSize() {
+		return instanceSize;
+	}
+
+	// Estimate the size of an object header plus its fields, assuming compressed
+	// references. Objects reachable from the instance are not included.
+	private static long estimateShallowSize(Class<?> cls) {
+		long size = 12;
+		for (Class<?> c = cls; c != null; c = c.getSuperclass()) {
+			for (Field f : c.getDeclaredFields()) {
+				if (Modifier.isStatic(f.getModifiers())) {
+					continue;
+				}
+				Class<?> t = f.getType();
+				if (t == long.class || t == double.class) {
+					size += 8;
+				} else if (t == int.class || t == float.class) {
+					size += 4;
+				} else if (t == short.class || t == char.class) {
+					size += 2;
+				} else if (t == byte.class || t == boolean.class) {
+					size += 1;
+				} else {
+					size += 4;
+				}
+			}
+		}
+		return (size + 7) & ~7L;
+	}
+
+	public Map<String, RemoteMethod[]> getRemoteMethods() {
 		return remoteMethods;
 	}
 
-	public void setRemoteMethods(Map<String, MethodHandle> remoteMethods) {
+	public void setRemoteMethods(Map<String, RemoteMethod[]> remoteMethods) {
 		this.remoteMethods = remoteMethods;
 	}
 
@@ -93,11 +146,31 @@ public final class ActorModel {
 		this.deactivateMethod = deactivateMethod;
 	}
 
-	public Map<String, ActorInstance> getActorInstances() {
+	public ConcurrentHashMap<String, ActorEntry> getActorInstances() {
 		return actorInstances;
 	}
 
-	public void setActorInstances(Map<String, ActorInstance> actorInstances) {
+	public void setActorInstances(ConcurrentHashMap<String, ActorEntry> actorInstances) {
 		this.actorInstances = actorInstances;
 	}
+
+	public ConcurrentLinkedQueue<ActorEntry> getClock() {
+		return clock;
+	}
+
+	public AtomicInteger getClockGarbage() {
+		return clockGarbage;
+	}
+
+	public AtomicInteger getResidentCount() {
+		return residentCount;
+	}
+
+	public int getMaxResident() {
+		return maxResident;
+	}
+
+	public void setMaxResident(int maxResident) {
+		this.maxResident = maxResident;
+	}
 }
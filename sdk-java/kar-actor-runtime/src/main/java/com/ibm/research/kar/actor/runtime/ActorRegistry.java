@@ -0,0 +1,628 @@
+/*
+ * Copyright IBM Corporation 2020,2021
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ibm.research.kar.actor.runtime;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Logger;
+
+import com.ibm.research.kar.KarConfig;
+import com.ibm.research.kar.actor.ActorInstance;
+import com.ibm.research.kar.actor.annotations.Activate;
+import com.ibm.research.kar.actor.annotations.Actor;
+import com.ibm.research.kar.actor.annotations.Deactivate;
+import com.ibm.research.kar.actor.annotations.Remote;
+
+/**
+ * The registry of actor types and resident actor instances shared by the
+ * Liberty and Quarkus implementations of ActorManager.
+ *
+ * The map of actor types is only written while the registry is constructed.
+ * Each actor type keeps its instances in its own ConcurrentHashMap, so lookups
+ * never block and activations of one type do not contend with activations of
+ * another. No container-managed locking is needed by callers.
+ *
+ * The number of resident instances can be bounded per type and in total. When
+ * a bound is exceeded, an approximately least recently used instance is
+ * passivated by running its @Deactivate method and dropping it from memory.
+ * Victims are chosen with the CLOCK algorithm: each access sets a reference
+ * bit and the eviction hand gives referenced or busy instances a second
+ * chance. Instances that stay idle longer than a configurable timeout are
+ * passivated by an IdleActorSweeper. @Deactivate methods run on a bounded
+ * pool of passivation threads. A passivated instance is transparently
+ * reactivated by the next invocation that targets it, once its @Deactivate
+ * method has completed.
+ *
+ * Optionally, actor method invocations run on virtual threads so that nested
+ * blocking calls to other actors do not hold on to request threads.
+ */
+public final class ActorRegistry implements AutoCloseable {
+
+	private final static String LOG_PREFIX = "ActorRegistry.";
+	private final Logger logger = Logger.getLogger(ActorRegistry.class.getName());
+
+	private final Map<String, ActorModel> actorMap = new ConcurrentHashMap<String, ActorModel>();
+
+	// maximum number of resident instances across all types (0 means unbounded)
+	private final int maxResident;
+
+	// cache statistics
+	private final AtomicInteger resident = new AtomicInteger();
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+	private final LongAdder evictions = new LongAdder();
+	private final LongAdder idlePassivations = new LongAdder();
+	private final LongAdder reclaimedBytes = new LongAdder();
+
+	// runs @Deactivate methods of passivated instances
+	private final ThreadPoolExecutor passivationPool;
+
+	// passivates idle instances (null if there is no idle timeout)
+	private final IdleActorSweeper sweeper;
+
+	// runs actor method invocations (null to run them on the request thread)
+	private final ExecutorService invocationExecutor;
+
+	/**
+	 * Create a registry for the actor classes and types configured in KarConfig
+	 */
+	public ActorRegistry() {
+		logger.info(
+				LOG_PREFIX + "initialize: Got init params " + KarConfig.ACTOR_CLASS_STR + ":" + KarConfig.ACTOR_TYPE_NAME_STR);
+
+		// ensure that we have non-null class and kar type strings from web.xml
+		if ((KarConfig.ACTOR_CLASS_STR != null) && (KarConfig.ACTOR_TYPE_NAME_STR != null)) {
+			List<String> classList = Arrays.asList(KarConfig.ACTOR_CLASS_STR.split("\\s*,\\s*"));
+			List<String> nameList = Arrays.asList(KarConfig.ACTOR_TYPE_NAME_STR.split("\\s*,\\s*"));
+
+			if (classList.size() != nameList.size()) {
+				logger.severe("Incompatible actor configuration! " + ActorRuntimeContextListener.KAR_ACTOR_CLASSES + "="
+						+ KarConfig.ACTOR_CLASS_STR + " and " + ActorRuntimeContextListener.KAR_ACTOR_TYPES + "="
+						+ KarConfig.ACTOR_TYPE_NAME_STR);
+			} else {
+				// Create ActorModel for each class
+				MethodHandles.Lookup lookup = MethodHandles.lookup();
+				for (String actorClassName : classList) {
+					try {
+						Class<?> cls = Class.forName(actorClassName);
+						boolean isAnnotated = cls.getAnnotation(Actor.class) != null;
+						boolean isActorInstance = ActorInstance.class.isAssignableFrom(cls);
+
+						// class must be annotated with @Actor and implement ActorInstance to be
+						// processed as a valid Actor
+						if (isAnnotated && isActorInstance) {
+							@SuppressWarnings("unchecked") // can never fail because isActorInstance is true
+							Class<ActorInstance> actorClass = ((Class<ActorInstance>) cls);
+
+							Method[] methods = cls.getMethods();
+							Map<String, RemoteMethod[]> remoteMethods = new HashMap<String, RemoteMethod[]>();
+							MethodHandle activateMethod = null;
+							MethodHandle deactivateMethod = null;
+
+							for (Method method : methods) {
+								if (method.isAnnotationPresent(Remote.class)) {
+									try {
+										MethodHandle mh = lookup.unreflect(method);
+										String key = method.getName()+":"+method.getParameterCount();
+										// overloads of a method name are indexed by their number of parameters
+										RemoteMethod[] overloads = remoteMethods.getOrDefault(method.getName(), new RemoteMethod[0]);
+										if (overloads.length > method.getParameterCount() && overloads[method.getParameterCount()] != null) {
+											logger.severe("Unsupported static overload of "+method.getName()+". Multiple overloads with "+method.getParameterCount()+" arguments");
+											logger.severe("Method "+method.toString()+" failed to be registered as a @Remote method");
+										} else {
+											logger.info(LOG_PREFIX + "initialize: adding " + key + " to remote methods for "+ actorClassName);
+											if (overloads.length <= method.getParameterCount()) {
+												overloads = Arrays.copyOf(overloads, method.getParameterCount() + 1);
+											}
+											overloads[method.getParameterCount()] = new RemoteMethod(method, mh);
+											remoteMethods.put(method.getName(), overloads);
+										}
+									} catch (IllegalAccessException e) {
+										logger.severe(LOG_PREFIX + "initialize: IllegalAccessException when adding" + method.getName()
+												+ " to remote methods for " + actorClassName);
+									}
+								} else if (method.isAnnotationPresent(Activate.class)) {
+									try {
+										activateMethod = lookup.unreflect(method);
+									} catch (IllegalAccessException e) {
+										logger
+												.severe(LOG_PREFIX + "initialize: IllegalAccessException adding activate to " + actorClassName);
+									}
+								} else if (method.isAnnotationPresent(Deactivate.class)) {
+									try {
+										deactivateMethod = lookup.unreflect(method);
+									} catch (IllegalAccessException e) {
+										logger.severe(
+												LOG_PREFIX + "initialize: IllegalAccessException adding deactivate to " + actorClassName);
+									}
+								}
+
+							}
+							// create new ActorModel
+							ActorModel actorModel = new ActorModel();
+
+							String karTypeName = nameList.get(classList.indexOf(actorClassName));
+
+							// add kar type and class for future (?) bookeeping
+							actorModel.setType(karTypeName);
+							actorModel.setActorClass(actorClass);
+
+							// add methods so we don't have to look them up later
+							actorModel.setActivateMethod(activateMethod); // ok to be null
+							actorModel.setDeactivateMethod(deactivateMethod); // ok to be null
+							actorModel.setRemoteMethods(remoteMethods); // ok to be empty
+
+							// put new ActorModel in ActorMap with KAR type as key
+							actorMap.put(karTypeName, actorModel);
+						} else {
+							if (!isAnnotated) {
+								logger.severe(LOG_PREFIX + "initialize: " + actorClassName + " is not annotated with @Actor");
+							}
+							if (!isActorInstance) {
+								logger.severe(LOG_PREFIX + "initialize: " + actorClassName + " does not implement "
+										+ ActorInstance.class.getName());
+							}
+						}
+					} catch (ClassNotFoundException e) {
+						e.printStackTrace();
+						System.out.print(LOG_PREFIX + "initialize: Cannot log class " + actorClassName);
+					}
+				}
+
+			}
+
+			logger.info(LOG_PREFIX + "initialize: actor map initialized with " + actorMap.size() + " entries");
+		}
+
+		this.maxResident = Math.max(KarConfig.ACTOR_CACHE_MAX_TOTAL, 0);
+		configureTypeLimits(KarConfig.ACTOR_CACHE_MAX_PER_TYPE_STR);
+		if (maxResident > 0) {
+			logger.info(LOG_PREFIX + "initialize: at most " + maxResident + " resident actor instances");
+		}
+
+		// when the pool is saturated the thread that triggered passivation runs @Deactivate itself
+		int threads = Math.max(KarConfig.ACTOR_PASSIVATION_THREADS, 1);
+		this.passivationPool = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+				new ArrayBlockingQueue<Runnable>(1024), r -> {
+					Thread t = new Thread(r, "kar-actor-passivation");
+					t.setDaemon(true);
+					return t;
+				}, new ThreadPoolExecutor.CallerRunsPolicy());
+		this.passivationPool.allowCoreThreadTimeOut(true);
+		this.sweeper = KarConfig.ACTOR_IDLE_TIMEOUT_MILLIS > 0 ? new IdleActorSweeper(this, KarConfig.ACTOR_IDLE_TIMEOUT_MILLIS)
+				: null;
+		this.invocationExecutor = KarConfig.ACTOR_VIRTUAL_THREADS ? newVirtualThreadExecutor() : null;
+	}
+
+	// Virtual threads need Java 21; we compile for Java 11, so look the factory up reflectively
+	private ExecutorService newVirtualThreadExecutor() {
+		try {
+			Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+			ExecutorService executor = (ExecutorService) factory.invoke(null);
+			logger.info(LOG_PREFIX + "initialize: running actor invocations on virtual threads");
+			return executor;
+		} catch (ReflectiveOperationException | RuntimeException e) {
+			logger.warning(LOG_PREFIX + "initialize: virtual threads are not supported by this JVM ("
+					+ Runtime.version() + "); running actor invocations on request threads");
+			return null;
+		}
+	}
+
+	@Override
+	public void close() {
+		if (sweeper != null) {
+			sweeper.close();
+		}
+		passivationPool.shutdown();
+		if (invocationExecutor != null) {
+			invocationExecutor.shutdown();
+		}
+	}
+
+	/**
+	 * @return The executor that runs actor method invocations, or null if they
+	 *         run on the request thread
+	 */
+	public Executor getInvocationExecutor() {
+		return invocationExecutor;
+	}
+
+	// parse a list of type=limit pairs; a bare limit applies to every unlisted type
+	private void configureTypeLimits(String limits) {
+		if (limits == null || limits.trim().isEmpty()) {
+			return;
+		}
+		int defaultLimit = 0;
+		Map<String, Integer> typeLimits = new HashMap<String, Integer>();
+		for (String spec : limits.trim().split("\\s*,\\s*")) {
+			try {
+				int eq = spec.indexOf('=');
+				if (eq < 0) {
+					defaultLimit = Integer.parseInt(spec);
+				} else {
+					typeLimits.put(spec.substring(0, eq).trim(), Integer.parseInt(spec.substring(eq + 1).trim()));
+				}
+			} catch (NumberFormatException e) {
+				logger.severe(LOG_PREFIX + "initialize: ignoring malformed actor cache limit " + spec);
+			}
+		}
+		for (ActorModel model : actorMap.values()) {
+			Integer limit = typeLimits.getOrDefault(model.getType(), defaultLimit);
+			model.setMaxResident(Math.max(limit, 0));
+			if (model.getMaxResident() > 0) {
+				logger.info(LOG_PREFIX + "initialize: at most " + model.getMaxResident() + " resident instances of " + model.getType());
+			}
+		}
+	}
+
+	public ActorInstance getActor(String type, String id) {
+		ActorEntry entry = lookup(type, id);
+		return entry != null ? entry.getInstance() : null;
+	}
+
+	/**
+	 * Get a resident actor instance and prevent it from being passivated until
+	 * {@link #releaseActor} is called.
+	 *
+	 * @return The instance, or null if it is not resident
+	 */
+	public ActorInstance acquireActor(String type, String id) {
+		ActorEntry entry = lookup(type, id);
+		return entry != null && entry.pin() ? entry.getInstance() : null;
+	}
+
+	public void releaseActor(ActorInstance actor) {
+		ActorModel model = this.actorMap.get(actor.getType());
+		if (model != null) {
+			ActorEntry entry = model.getActorInstances().get(actor.getId());
+			if (entry != null && entry.getInstance() == actor) {
+				entry.unpin();
+			}
+		}
+	}
+
+	private ActorEntry lookup(String type, String id) {
+		ActorModel model = this.actorMap.get(type);
+		if (model == null) {
+			return null;
+		}
+		ActorEntry entry = model.getActorInstances().get(id);
+		if (entry != null && !entry.activated.isDone()) {
+			// wait for the activation in progress
+			try {
+				entry.activated.join();
+			} catch (CompletionException e) {
+				entry = null;
+			}
+		}
+		if (entry == null || entry.isRetired()) {
+			misses.increment();
+			return null;
+		}
+		hits.increment();
+		entry.touch(sweeper != null ? sweeper.currentTick() : 0);
+		return entry;
+	}
+
+	/**
+	 * Get the instance of an actor, allocating it and running its @Activate
+	 * method if it is not resident.
+	 *
+	 * Activation is single-flight: concurrent callers for the same actor wait
+	 * for the one activation in progress instead of allocating and activating
+	 * their own instance. @Activate runs without holding any lock.
+	 *
+	 * @return The activated instance, or null if the actor type is unknown or
+	 *         the instance could not be allocated
+	 * @throws Throwable the exception thrown by the @Activate method
+	 */
+	public ActorInstance activateActor(String type, String id) throws Throwable {
+		ActorModel actorModel = actorMap.get(type);
+		if (actorModel == null) {
+			return null;
+		}
+
+		for (;;) {
+			ActorEntry prior = actorModel.getActorInstances().get(id);
+			if (prior != null) {
+				if (prior.isRetired()) {
+					// the previous incarnation must finish deactivating before we activate a new one
+					prior.passivated.join();
+					actorModel.getActorInstances().remove(id, prior);
+					continue;
+				}
+				try {
+					prior.activated.join();
+					return prior.getInstance();
+				} catch (CompletionException e) {
+					throw e.getCause();
+				}
+			}
+
+			// allocate the instance under the map's lock for this id, so there is only one;
+			// the entry stays pinned until @Activate, which runs after the lock is released, completes
+			ActorEntry[] created = new ActorEntry[1];
+			ActorEntry entry = actorModel.getActorInstances().computeIfAbsent(id, k -> {
+				ActorInstance actorObj;
+				try {
+					actorObj = actorModel.getActorClass().getConstructor().newInstance();
+				} catch (Throwable t) {
+					logger.severe(LOG_PREFIX + "activateActor: " + t.toString());
+					return null;
+				}
+				actorObj.setType(type);
+				actorObj.setId(id);
+				created[0] = new ActorEntry(actorModel, actorObj, sweeper != null ? sweeper.currentTick() : 0);
+				created[0].pin();
+				return created[0];
+			});
+			if (entry == null) {
+				return null;
+			}
+			if (entry != created[0]) {
+				continue; // lost the race; wait for the winner
+			}
+
+			actorModel.getResidentCount().incrementAndGet();
+			resident.incrementAndGet();
+			try {
+				MethodHandle activate = actorModel.getActivateMethod();
+				if (activate != null) {
+					activate.invoke(entry.getInstance());
+				}
+			} catch (Throwable t) {
+				// discard the instance so that the next request retries the activation;
+				// requests already waiting on this activation fail with the same exception
+				entry.unpin();
+				deleteActor(type, id);
+				entry.activated.completeExceptionally(t);
+				throw t;
+			}
+			entry.unpin();
+			entry.activated.complete(null);
+
+			if (isBounded(actorModel)) {
+				actorModel.getClock().offer(entry);
+				enforceCapacity(actorModel);
+			}
+			if (sweeper != null) {
+				sweeper.track(entry);
+			}
+			return entry.getInstance();
+		}
+	}
+
+	/**
+	 * Drop an actor instance without running its @Deactivate method. A new
+	 * incarnation is not activated before invocations of the instance still
+	 * running have completed.
+	 *
+	 * @return true if this call retired the instance
+	 */
+	public boolean deleteActor(String type, String id) {
+		ActorModel actorModel = this.actorMap.get(type);
+		if (actorModel != null) {
+			ActorEntry entry = actorModel.getActorInstances().get(id);
+			if (entry != null && entry.retire()) {
+				actorModel.getResidentCount().decrementAndGet();
+				resident.decrementAndGet();
+				dropFromClock(actorModel);
+				entry.drained.thenRun(() -> {
+					actorModel.getActorInstances().remove(id, entry);
+					entry.passivated.complete(null);
+				});
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Passivate an actor instance on request of the sidecar: retire it, wait for
+	 * its activation and for invocations still running, then run its @Deactivate
+	 * method. Only the caller that retires the instance deactivates it, so
+	 * @Deactivate never runs twice even if the IdleActorSweeper or the CLOCK hand
+	 * races with this call.
+	 *
+	 * @return true if this call passivated the instance, false if it is not
+	 *         resident or is already being passivated
+	 * @throws Throwable the exception thrown by the @Deactivate method; the
+	 *                   instance is dropped anyway
+	 */
+	public boolean passivateActor(String type, String id) throws Throwable {
+		ActorModel actorModel = this.actorMap.get(type);
+		if (actorModel == null) {
+			return false;
+		}
+		ActorEntry entry = actorModel.getActorInstances().get(id);
+		if (entry == null) {
+			return false;
+		}
+		try {
+			entry.activated.join();
+		} catch (CompletionException e) {
+			return false; // a failed activation discards its instance itself
+		}
+		if (!entry.retire()) {
+			return false;
+		}
+		actorModel.getResidentCount().decrementAndGet();
+		resident.decrementAndGet();
+		dropFromClock(actorModel);
+		entry.drained.join();
+		try {
+			MethodHandle deactivate = actorModel.getDeactivateMethod();
+			if (deactivate != null) {
+				deactivate.invoke(entry.getInstance());
+			}
+		} finally {
+			actorModel.getActorInstances().remove(id, entry);
+			entry.passivated.complete(null);
+		}
+		return true;
+	}
+
+	public ActorCacheStatistics getCacheStatistics() {
+		return new ActorCacheStatistics(resident.get(), hits.sum(), misses.sum(), evictions.sum(), idlePassivations.sum(),
+				reclaimedBytes.sum());
+	}
+
+	// passivate instances until both the per-type and the global bound are respected
+	private void enforceCapacity(ActorModel model) {
+		while (model.getMaxResident() > 0 && model.getResidentCount().get() > model.getMaxResident()) {
+			if (!evictOne(model)) {
+				break;
+			}
+		}
+		while (maxResident > 0 && resident.get() > maxResident) {
+			// take the victim from the type with the most resident instances
+			ActorModel victimModel = model;
+			for (ActorModel m : actorMap.values()) {
+				if (m.getResidentCount().get() > victimModel.getResidentCount().get()) {
+					victimModel = m;
+				}
+			}
+			if (!evictOne(victimModel)) {
+				break;
+			}
+		}
+	}
+
+	private boolean isBounded(ActorModel model) {
+		return maxResident > 0 || model.getMaxResident() > 0;
+	}
+
+	// An entry retired by a delete or by the sweeper stays in the clock until the
+	// hand reaches it, and the hand only moves while the cache is over its bound.
+	// Purge such entries once they outnumber the resident ones, so that the clock
+	// stays proportional to the cache and does not keep dead instances reachable.
+	private void dropFromClock(ActorModel model) {
+		if (!isBounded(model)) {
+			return;
+		}
+		if (model.getClockGarbage().incrementAndGet() > Math.max(model.getResidentCount().get(), 16)) {
+			model.getClockGarbage().set(0);
+			model.getClock().removeIf(ActorEntry::isRetired);
+		}
+	}
+
+	// advance the CLOCK hand of a type until an idle, unreferenced instance is passivated
+	private boolean evictOne(ActorModel model) {
+		ConcurrentLinkedQueue<ActorEntry> clock = model.getClock();
+		// two full turns are enough to clear every reference bit; if nothing is
+		// evictable by then all instances are busy and we stay over the bound
+		int budget = 2 * model.getResidentCount().get() + 1;
+		for (int i = 0; i < budget; i++) {
+			ActorEntry entry = clock.poll();
+			if (entry == null) {
+				return false;
+			}
+			if (entry.isRetired()) {
+				continue; // already deleted or passivated
+			}
+			if (entry.referenced) {
+				entry.referenced = false;
+				clock.offer(entry);
+				continue;
+			}
+			if (!passivate(entry)) {
+				clock.offer(entry); // busy
+				continue;
+			}
+			evictions.increment();
+			return true;
+		}
+		return false;
+	}
+
+	// called by the IdleActorSweeper for an instance whose idle timeout expired
+	boolean passivateIdle(ActorEntry entry) {
+		if (passivate(entry)) {
+			idlePassivations.increment();
+			dropFromClock(entry.getModel());
+			return true;
+		}
+		return false;
+	}
+
+	// retire an idle entry and run its @Deactivate method on the passivation pool
+	private boolean passivate(ActorEntry entry) {
+		if (!entry.retireIfIdle()) {
+			return false;
+		}
+		ActorModel model = entry.getModel();
+		model.getResidentCount().decrementAndGet();
+		resident.decrementAndGet();
+		reclaimedBytes.add(model.getInstanceSize());
+		passivationPool.execute(() -> {
+			ActorInstance victim = entry.getInstance();
+			try {
+				MethodHandle deactivate = model.getDeactivateMethod();
+				if (deactivate != null) {
+					deactivate.invoke(victim);
+				}
+			} catch (Throwable t) {
+				logger.warning(LOG_PREFIX + "passivate: deactivate of " + victim + " failed: " + t.toString());
+			} finally {
+				model.getActorInstances().remove(victim.getId(), entry);
+				entry.passivated.complete(null);
+			}
+		});
+		return true;
+	}
+
+	public boolean hasActorType(String type) {
+		return this.actorMap.containsKey(type);
+	}
+
+	// Runs on every invocation: a lookup keyed by the path segment and an array index,
+	// with no per-invocation key to build (a "name:arity" key cost 48 bytes a call).
+	public RemoteMethod getActorMethod(String type, String name, int numParams) {
+		ActorModel model = this.actorMap.get(type);
+		if (model == null) {
+			return null;
+		}
+		RemoteMethod[] overloads = model.getRemoteMethods().get(name);
+		return overloads != null && numParams < overloads.length ? overloads[numParams] : null;
+	}
+
+	public MethodHandle getActorActivateMethod(String type) {
+		ActorModel model = this.actorMap.get(type);
+		return model != null ? model.getActivateMethod() : null;
+	}
+
+	public MethodHandle getActorDeactivateMethod(String type) {
+		ActorModel model = this.actorMap.get(type);
+		return model != null ? model.getDeactivateMethod() : null;
+	}
+}
@@ -0,0 +1,36 @@
+/*
+ * Copyright IBM Corporation 2020,2021
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ibm.research.kar.actor.runtime;
+
+import javax.json.JsonValue;
+
+/**
+ * The result of a successful actor method invocation, written by
+ * ActorResultWriter as {"value":..}.
+ */
+public final class ActorResult {
+
+	private final JsonValue value;
+
+	ActorResult(JsonValue value) {
+		this.value = value;
+	}
+
+	public JsonValue getValue() {
+		return value;
+	}
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright IBM Corporation 2020,2021
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ibm.research.kar.actor.runtime;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+
+import javax.json.Json;
+import javax.json.stream.JsonGenerator;
+import javax.json.stream.JsonGeneratorFactory;
+import javax.ws.rs.Produces;
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.ext.MessageBodyWriter;
+import javax.ws.rs.ext.Provider;
+
+import com.ibm.research.kar.KarRest;
+
+/**
+ * Writes the {"value":..} envelope of an actor method result straight to the
+ * entity stream, without building an intermediate JsonObject.
+ */
+@Provider
+@Produces(KarRest.KAR_ACTOR_JSON)
+public class ActorResultWriter implements MessageBodyWriter<ActorResult> {
+
+	private static final JsonGeneratorFactory generatorFactory = Json.createGeneratorFactory(null);
+
+	@Override
+	public boolean isWriteable(Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
+		return type == ActorResult.class;
+	}
+
+	@Override
+	public void writeTo(ActorResult t, Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType,
+			MultivaluedMap<String, Object> httpHeaders, OutputStream entityStream)
+			throws IOException, WebApplicationException {
+		JsonGenerator generator = generatorFactory.createGenerator(entityStream);
+		generator.writeStartObject();
+		generator.write("value", t.getValue());
+		generator.writeEnd();
+		generator.close();
+	}
+}
@@ -34,6 +34,8 @@ public class ActorRuntimeApplication extends Application {
     logger.info("Running ActorRuntimeApplication getClasses()");
     Set<Class<?>> classes = new HashSet<Class<?>>();
     classes.add(JSONProvider.class);
+    classes.add(ActorArgumentsReader.class);
+    classes.add(ActorResultWriter.class);
     classes.add(ActorRuntimeResource.class);
     classes.add(StatusReporter.class);
     return classes;
@@ -37,6 +37,13 @@ public class ActorRuntimeContextListener implements ServletContextListener {
 	public static final String KAR_ACTOR_TYPES = "kar-actor-types";
 	public static final String KAR_CONNECTION_TIMEOUT = "kar-connection-timeout-millis";
 	public static final String KAR_SHORTEN_ACTOR_STACKTRACES = "kar-shorten-actor-stacktraces";
+	public static final String KAR_ACTOR_CACHE_MAX_PER_TYPE = "kar-actor-cache-max-per-type";
+	public static final String KAR_ACTOR_CACHE_MAX_TOTAL = "kar-actor-cache-max-total";
+	public static final String KAR_ACTOR_IDLE_TIMEOUT = "kar-actor-idle-timeout-millis";
+	public static final String KAR_ACTOR_PASSIVATION_THREADS = "kar-actor-passivation-threads";
+	public static final String KAR_ACTOR_VIRTUAL_THREADS = "kar-actor-virtual-threads";
+	public static final String KAR_ACTOR_ERROR_TRACE_SAMPLE = "kar-actor-error-trace-sample";
+	public static final String KAR_ACTOR_ERROR_TRACES_PER_SECOND = "kar-actor-error-traces-per-second";
 
 	@Override
 	public void contextInitialized(final ServletContextEvent servletContextEvent) {
@@ -49,6 +56,57 @@ public class ActorRuntimeContextListener implements ServletContextListener {
 			KarConfig.SHORTEN_ACTOR_STACKTRACES = Boolean.parseBoolean(tmp);
 		}
 
+		KarConfig.ACTOR_CACHE_MAX_PER_TYPE_STR = ctx.getInitParameter(ActorRuntimeContextListener.KAR_ACTOR_CACHE_MAX_PER_TYPE);
+		String maxTotal = ctx.getInitParameter(ActorRuntimeContextListener.KAR_ACTOR_CACHE_MAX_TOTAL);
+		if (maxTotal != null) {
+			try {
+				KarConfig.ACTOR_CACHE_MAX_TOTAL = Integer.parseInt(maxTotal);
+			} catch (NumberFormatException ex) {
+				ex.printStackTrace();
+			}
+		}
+
+		String idleTimeout = ctx.getInitParameter(ActorRuntimeContextListener.KAR_ACTOR_IDLE_TIMEOUT);
+		if (idleTimeout != null) {
+			try {
+				KarConfig.ACTOR_IDLE_TIMEOUT_MILLIS = Long.parseLong(idleTimeout);
+			} catch (NumberFormatException ex) {
+				ex.printStackTrace();
+			}
+		}
+
+		String passivationThreads = ctx.getInitParameter(ActorRuntimeContextListener.KAR_ACTOR_PASSIVATION_THREADS);
+		if (passivationThreads != null) {
+			try {
+				KarConfig.ACTOR_PASSIVATION_THREADS = Integer.parseInt(passivationThreads);
+			} catch (NumberFormatException ex) {
+				ex.printStackTrace();
+			}
+		}
+
+		String virtualThreads = ctx.getInitParameter(ActorRuntimeContextListener.KAR_ACTOR_VIRTUAL_THREADS);
+		if (virtualThreads != null) {
+			KarConfig.ACTOR_VIRTUAL_THREADS = Boolean.parseBoolean(virtualThreads);
+		}
+
+		String traceSample = ctx.getInitParameter(ActorRuntimeContextListener.KAR_ACTOR_ERROR_TRACE_SAMPLE);
+		if (traceSample != null) {
+			try {
+				KarConfig.ACTOR_ERROR_TRACE_SAMPLE = Integer.parseInt(traceSample);
+			} catch (NumberFormatException ex) {
+				ex.printStackTrace();
+			}
+		}
+
+		String tracesPerSecond = ctx.getInitParameter(ActorRuntimeContextListener.KAR_ACTOR_ERROR_TRACES_PER_SECOND);
+		if (tracesPerSecond != null) {
+			try {
+				KarConfig.ACTOR_ERROR_TRACES_PER_SECOND = Integer.parseInt(tracesPerSecond);
+			} catch (NumberFormatException ex) {
+				ex.printStackTrace();
+			}
+		}
+
 		String timeOut = ctx.getInitParameter(ActorRuntimeContextListener.KAR_CONNECTION_TIMEOUT);
 		if (timeOut != null) {
 			try {
@@ -16,33 +16,35 @@
 
 package com.ibm.research.kar.actor.runtime;
 
-import java.lang.invoke.MethodHandle;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.logging.Logger;
 
-import java.io.StringWriter;
-import java.io.PrintWriter;
-
 import javax.inject.Inject;
-import javax.json.Json;
-import javax.json.JsonArray;
 import javax.json.JsonObject;
-import javax.json.JsonObjectBuilder;
 import javax.json.JsonValue;
 import javax.ws.rs.Consumes;
 import javax.ws.rs.DELETE;
 import javax.ws.rs.GET;
 import javax.ws.rs.HEAD;
+import javax.ws.rs.HeaderParam;
 import javax.ws.rs.POST;
 import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.container.Suspended;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.Response.Status;
 
-import com.ibm.research.kar.KarConfig;
 import com.ibm.research.kar.KarRest;
 import com.ibm.research.kar.actor.ActorInstance;
+import com.ibm.research.kar.actor.ActorSkeleton;
+import com.ibm.research.kar.actor.InvocationContext;
+import com.ibm.research.kar.actor.exceptions.ActorMethodTimeoutException;
 
 @Path("actor")
 public class ActorRuntimeResource {
@@ -50,6 +52,9 @@ public class ActorRuntimeResource {
 	private static Logger logger = Logger.getLogger(ActorRuntimeResource.class.getName());
 	private final static String LOG_PREFIX = "ActorRuntimeResource.";
 
+	// W3C trace context header
+	private final static String TRACE_HEADER = "traceparent";
+
 	@Inject
 	ActorManager actorManager;
 
@@ -62,17 +67,9 @@ public class ActorRuntimeResource {
 			return Response.status(Response.Status.OK).build();
 		}
 
-		// Allocate a new actor instance
-		ActorInstance actorObj = this.actorManager.createActor(type, id);
-		if (actorObj == null) {
-			return Response.status(Response.Status.NOT_FOUND).entity("Not found: " + type + " actor " + id).build();
-		}
-
-		// Call the optional activate method
 		try {
-			MethodHandle activate = this.actorManager.getActorActivateMethod(type);
-			if (activate != null) {
-				activate.invoke(actorObj);
+			if (this.actorManager.activateActor(type, id) == null) {
+				return Response.status(Response.Status.NOT_FOUND).entity("Not found: " + type + " actor " + id).build();
 			}
 			return Response.status(Response.Status.CREATED).entity("Created " + type + " actor " + id).build();
 		} catch (Throwable t) {
@@ -83,24 +80,20 @@ public class ActorRuntimeResource {
 	@DELETE
 	@Path("{type}/{id}")
 	public Response deleteActor(@PathParam("type") String type, @PathParam("id") String id) {
-		ActorInstance actorObj = this.actorManager.getActor(type, id);
-		if (actorObj == null) {
-			return Response.status(Response.Status.NOT_FOUND).entity("Not found: " + type + " actor " + id).build();
-		}
-
-		// Call the optional deactivate method
-		MethodHandle deactivate = this.actorManager.getActorDeactivateMethod(type);
-		if (deactivate != null) {
-			try {
-				deactivate.invoke(actorObj);
-			} catch (Throwable t) {
-				return Response.status(Response.Status.BAD_REQUEST).entity(t.toString()).build();
+		// Retire the instance, then call the optional deactivate method; only one
+		// of concurrent passivations of the instance gets to deactivate it
+		try {
+			if (this.actorManager.passivateActor(type, id)) {
+				return Response.status(Response.Status.OK).build();
 			}
+		} catch (Throwable t) {
+			return Response.status(Response.Status.BAD_REQUEST).entity(t.toString()).build();
 		}
-
-		// Actually remove the instance
-		actorManager.deleteActor(type, id);
-		return Response.status(Response.Status.OK).build();
+		if (this.actorManager.hasActorType(type)) {
+			// Already passivated (or being passivated) by the runtime; nothing to do.
+			return Response.status(Response.Status.OK).build();
+		}
+		return Response.status(Response.Status.NOT_FOUND).entity("Not found: " + type + " actor " + id).build();
 	}
 
 	@HEAD
@@ -114,59 +107,145 @@ public class ActorRuntimeResource {
 	@Path("{type}/{id}/{sessionid}/{path}")
 	@Consumes(KarRest.KAR_ACTOR_JSON)
 	@Produces(KarRest.KAR_ACTOR_JSON)
-	public Response invokeActorMethod(@PathParam("type") String type, @PathParam("id") String id,
-			@PathParam("sessionid") String sessionid, @PathParam("path") String path, JsonArray args) {
+	public void invokeActorMethod(@PathParam("type") String type, @PathParam("id") String id,
+			@PathParam("sessionid") String sessionid, @PathParam("path") String path,
+			@HeaderParam(TRACE_HEADER) String traceId, @HeaderParam(KarRest.KAR_TIMEOUT_HEADER) String timeout,
+			ActorArguments args, @Suspended AsyncResponse asyncResponse) {
+
+		// The caller gives up after timeout milliseconds; so should its nested calls.
+		// The sidecar does not pass the header on to actors today, so this applies only
+		// to requests that reach the runtime with it.
+		long deadline = deadlineOf(timeout);
+
+		Executor executor = this.actorManager.getInvocationExecutor();
+		if (executor == null) {
+			dispatchActorMethod(type, id, sessionid, path, traceId, deadline, args, asyncResponse);
+			return;
+		}
 
-		ActorInstance actorObj = this.actorManager.getActor(type, id);
-		if (actorObj == null) {
-			return Response.status(Response.Status.NOT_FOUND).type(MediaType.TEXT_PLAIN).entity("Actor instance not found: " + type + "[" + id +"]").build();
+		// Run the invocation on its own (virtual) thread so that nested blocking calls
+		// to other actors do not hold on to the request thread.
+		try {
+			executor.execute(() -> {
+				try {
+					dispatchActorMethod(type, id, sessionid, path, traceId, deadline, args, asyncResponse);
+				} catch (Throwable t) {
+					asyncResponse.resume(t);
+				}
+			});
+		} catch (RejectedExecutionException e) {
+			// shutting down
+			dispatchActorMethod(type, id, sessionid, path, traceId, deadline, args, asyncResponse);
 		}
+	}
 
-		MethodHandle actorMethod = this.actorManager.getActorMethod(type, path, args.size());
-		if (actorMethod == null) {
-			return Response.status(Response.Status.NOT_FOUND).type(MediaType.TEXT_PLAIN).entity("Method not found: " + type + "." + path + " with " + args.size() + " arguments").build();
+	private static long deadlineOf(String timeout) {
+		if (timeout == null) {
+			return 0;
+		}
+		try {
+			return System.currentTimeMillis() + Math.max(Long.parseLong(timeout.trim()), 1);
+		} catch (NumberFormatException e) {
+			logger.fine(LOG_PREFIX + "deadlineOf: ignoring malformed " + KarRest.KAR_TIMEOUT_HEADER + ": " + timeout);
+			return 0;
 		}
+	}
 
-		// set the session
-		actorObj.setSession(sessionid);
+	private void dispatchActorMethod(String type, String id, String sessionid, String path, String traceId,
+			long deadline, ActorArguments args, AsyncResponse asyncResponse) {
+		if (deadline != 0 && System.currentTimeMillis() >= deadline) {
+			// the caller has already given up; don't start work nobody will see
+			asyncResponse.resume(errorResponse(new ActorMethodTimeoutException(
+					"Deadline expired before invoking " + type + "[" + id + "]." + path)));
+			return;
+		}
 
-		// build arguments array for method handle invoke
-		Object[] actuals = new Object[args.size() + 1];
-		actuals[0] = actorObj;
-		for (int i = 0; i < args.size(); i++) {
-			actuals[i + 1] = args.get(i);
+		ActorInstance actorObj = this.actorManager.acquireActor(type, id);
+		if (actorObj == null) {
+			// The instance was passivated by the runtime (or never activated); reactivate it.
+			try {
+				if (this.actorManager.activateActor(type, id) != null) {
+					actorObj = this.actorManager.acquireActor(type, id);
+				}
+			} catch (Throwable t) {
+				asyncResponse.resume(Response.status(Response.Status.BAD_REQUEST).type(MediaType.TEXT_PLAIN).entity(t.toString()).build());
+				return;
+			}
+			if (actorObj == null) {
+				asyncResponse.resume(Response.status(Response.Status.NOT_FOUND).type(MediaType.TEXT_PLAIN).entity("Actor instance not found: " + type + "[" + id +"]").build());
+				return;
+			}
 		}
 
+		boolean release = true;
 		try {
-			Object result = actorMethod.invokeWithArguments(actuals);
-			if (result == null && actorMethod.type().returnType().equals(Void.TYPE)) {
-				return Response.status(Response.Status.NO_CONTENT).build();
-			} else {
-				JsonValue jv = result != null ? (JsonValue)result : JsonValue.NULL;
-				JsonObject ro = Json.createObjectBuilder().add("value", jv).build();
-				return Response.status(Response.Status.OK).type(KarRest.KAR_ACTOR_JSON).entity(ro).build();
+			RemoteMethod actorMethod = this.actorManager.getActorMethod(type, path, args.size());
+			if (actorMethod == null) {
+				asyncResponse.resume(Response.status(Response.Status.NOT_FOUND).type(MediaType.TEXT_PLAIN).entity("Method not found: " + type + "." + path + " with " + args.size() + " arguments").build());
+				return;
 			}
-		} catch (Throwable t) {
-			if (KarConfig.SHORTEN_ACTOR_STACKTRACES) {
-				// Elide all of the implementation details above us in the backtrace
-				StackTraceElement [] fullBackTrace = t.getStackTrace();
-				for (int i=0; i<fullBackTrace.length; i++) {
-					if (fullBackTrace[i].getClassName().equals(ActorRuntimeResource.class.getName()) && fullBackTrace[i].getMethodName().equals("invokeActorMethod")) {
-						StackTraceElement[] reducedBackTrace = new StackTraceElement[i+1];
-						System.arraycopy(fullBackTrace, 0, reducedBackTrace, 0, i+1);
-						t.setStackTrace(reducedBackTrace);
-						break;
+
+			Object result;
+			try {
+				result = invokeActorMethod(actorObj, actorMethod, new InvocationContext(actorObj, sessionid, deadline, traceId), args);
+			} catch (Throwable t) {
+				asyncResponse.resume(errorResponse(t));
+				return;
+			}
+
+			if (actorMethod.isAsync() && result != null) {
+				// Keep the instance pinned and complete the response when the stage does
+				release = false;
+				final ActorInstance pinned = actorObj;
+				((CompletionStage<?>) result).whenComplete((value, t) -> {
+					try {
+						if (t != null) {
+							asyncResponse.resume(errorResponse(t instanceof CompletionException && t.getCause() != null ? t.getCause() : t));
+						} else {
+							asyncResponse.resume(valueResponse(value, actorMethod.completesVoid()));
+						}
+					} finally {
+						this.actorManager.releaseActor(pinned);
 					}
-				}
+				});
+				return;
 			}
-			JsonObjectBuilder ro = Json.createObjectBuilder();
-			ro.add("error", true);
-			ro.add("message", t.toString());
-			StringWriter sw = new StringWriter();
-			PrintWriter pw = new PrintWriter(sw);
-			t.printStackTrace(pw);
-			ro.add("stack", sw.toString());
-			return Response.status(Response.Status.OK).type(KarRest.KAR_ACTOR_JSON).entity(ro.build()).build();
+
+			asyncResponse.resume(valueResponse(result, actorMethod.returnsVoid()));
+		} finally {
+			if (release) {
+				this.actorManager.releaseActor(actorObj);
+			}
+		}
+	}
+
+	private Object invokeActorMethod(ActorInstance actorObj, RemoteMethod actorMethod, InvocationContext context, ActorArguments args) throws Throwable {
+		// Instances that implement ActorInstance directly have no other way to learn the
+		// session; ActorSkeleton reads it from the context.
+		if (!(actorObj instanceof ActorSkeleton)) {
+			actorObj.setSession(context.getSession());
+		}
+
+		// the session is scoped to this invocation rather than written into the shared instance
+		InvocationContext previous = InvocationContext.enter(context);
+		try {
+			return actorMethod.invoke(actorObj, args.values());
+		} finally {
+			InvocationContext.exit(previous);
+		}
+	}
+
+	private static Response valueResponse(Object result, boolean isVoid) {
+		if (result == null && isVoid) {
+			return Response.status(Response.Status.NO_CONTENT).build();
+		} else {
+			JsonValue jv = result != null ? (JsonValue)result : JsonValue.NULL;
+			return Response.status(Response.Status.OK).type(KarRest.KAR_ACTOR_JSON).entity(new ActorResult(jv)).build();
 		}
 	}
+
+	private static Response errorResponse(Throwable t) {
+		JsonObject ro = ActorErrorEncoder.encode(t, ActorRuntimeResource.class, "invokeActorMethod");
+		return Response.status(Response.Status.OK).type(KarRest.KAR_ACTOR_JSON).entity(ro).build();
+	}
 }
@@ -0,0 +1,181 @@
+/*
+ * Copyright IBM Corporation 2020,2021
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ibm.research.kar.actor.runtime;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * Passivates actor instances that have not been accessed for a configurable
+ * idle timeout.
+ *
+ * Instances are tracked by a hierarchical timer wheel (Varghese and Lauck)
+ * owned by a single sweeper thread. Request threads never touch the wheel:
+ * an access only stores the current tick in the instance's ActorEntry, and
+ * new instances are handed over through a concurrent inbox. When an
+ * instance's slot expires the sweeper compares its last access with the
+ * timeout and either reschedules it or asks the ActorRegistry to passivate it.
+ */
+final class IdleActorSweeper implements AutoCloseable {
+
+	private final static String LOG_PREFIX = "IdleActorSweeper.";
+	private final Logger logger = Logger.getLogger(IdleActorSweeper.class.getName());
+
+	private static final int WHEEL_BITS = 6;
+	private static final int WHEEL_SIZE = 1 << WHEEL_BITS;
+	private static final int WHEEL_MASK = WHEEL_SIZE - 1;
+	private static final int WHEEL_LEVELS = 4;
+
+	private final ActorRegistry registry;
+	private final long origin = System.nanoTime();
+	private final long tickNanos;
+	private final long timeoutTicks;
+
+	// tick most recently published to request threads
+	private volatile long currentTick;
+
+	// newly created entries not yet placed on the wheel
+	private final ConcurrentLinkedQueue<ActorEntry> inbox = new ConcurrentLinkedQueue<ActorEntry>();
+
+	// the wheel and its hand; only accessed by the sweeper thread
+	private final Slot[][] wheel;
+	private long processedTick;
+
+	private final ScheduledExecutorService ticker;
+
+	IdleActorSweeper(ActorRegistry registry, long timeoutMillis) {
+		this.registry = registry;
+		// aim for expiry within a few percent of the timeout without ticking more than 100 times a second
+		long tickMillis = Math.max(10, timeoutMillis / 32);
+		this.tickNanos = TimeUnit.MILLISECONDS.toNanos(tickMillis);
+		this.timeoutTicks = Math.max(1, timeoutMillis / tickMillis);
+		this.wheel = new Slot[WHEEL_LEVELS][WHEEL_SIZE];
+		for (int level = 0; level < WHEEL_LEVELS; level++) {
+			for (int slot = 0; slot < WHEEL_SIZE; slot++) {
+				wheel[level][slot] = new Slot();
+			}
+		}
+		this.ticker = Executors.newSingleThreadScheduledExecutor(r -> {
+			Thread t = new Thread(r, "kar-idle-actor-sweeper");
+			t.setDaemon(true);
+			return t;
+		});
+		this.ticker.scheduleWithFixedDelay(this::sweep, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+		logger.info(LOG_PREFIX + "initialize: passivating actors idle for " + timeoutMillis + "ms, checked every " + tickMillis + "ms");
+	}
+
+	long currentTick() {
+		return currentTick;
+	}
+
+	void track(ActorEntry entry) {
+		inbox.offer(entry);
+	}
+
+	@Override
+	public void close() {
+		ticker.shutdownNow();
+	}
+
+	private void sweep() {
+		try {
+			long now = (System.nanoTime() - origin) / tickNanos;
+			currentTick = now;
+			int passivated = 0;
+			long reclaimed = 0;
+			for (ActorEntry entry = inbox.poll(); entry != null; entry = inbox.poll()) {
+				schedule(entry, entry.lastAccess + timeoutTicks);
+			}
+			while (processedTick < now) {
+				processedTick++;
+				cascade();
+				Slot slot = wheel[0][(int) (processedTick & WHEEL_MASK)];
+				for (int n = slot.size(); n > 0; n--) {
+					ActorEntry entry = slot.poll();
+					if (expire(entry, now)) {
+						passivated++;
+						reclaimed += entry.getModel().getInstanceSize();
+					}
+				}
+			}
+			if (passivated > 0) {
+				logger.info(LOG_PREFIX + "sweep: passivated " + passivated + " idle actors, whose instances have an estimated shallow size of "
+						+ reclaimed + " bytes");
+			}
+		} catch (Throwable t) {
+			logger.severe(LOG_PREFIX + "sweep: " + t.toString());
+		}
+	}
+
+	// move the entries of every higher-level slot that starts at this tick down the hierarchy
+	private void cascade() {
+		for (int level = 1; level < WHEEL_LEVELS; level++) {
+			if ((processedTick & ((1L << (WHEEL_BITS * level)) - 1)) != 0) {
+				return;
+			}
+			Slot slot = wheel[level][(int) ((processedTick >>> (WHEEL_BITS * level)) & WHEEL_MASK)];
+			for (int n = slot.size(); n > 0; n--) {
+				ActorEntry entry = slot.poll();
+				schedule(entry, entry.lastAccess + timeoutTicks);
+			}
+		}
+	}
+
+	// passivate the entry if it has been idle long enough, otherwise reschedule it
+	private boolean expire(ActorEntry entry, long now) {
+		if (entry.isRetired()) {
+			return false;
+		}
+		long deadline = entry.lastAccess + timeoutTicks;
+		if (deadline > now) {
+			schedule(entry, deadline);
+			return false;
+		}
+		if (registry.passivateIdle(entry)) {
+			return true;
+		}
+		// busy; look again a full timeout from now
+		schedule(entry, now + timeoutTicks);
+		return false;
+	}
+
+	private void schedule(ActorEntry entry, long deadline) {
+		if (entry.isRetired()) {
+			return;
+		}
+		long delta = Math.max(deadline - processedTick, 1);
+		for (int level = 0; level < WHEEL_LEVELS; level++) {
+			if (delta < (1L << (WHEEL_BITS * (level + 1)))) {
+				wheel[level][(int) (((processedTick + delta) >>> (WHEEL_BITS * level)) & WHEEL_MASK)].offer(entry);
+				return;
+			}
+		}
+		// beyond the wheel's horizon; park in the furthest slot and look again when it cascades
+		int top = WHEEL_LEVELS - 1;
+		long horizon = processedTick + (1L << (WHEEL_BITS * WHEEL_LEVELS)) - (1L << (WHEEL_BITS * top));
+		wheel[top][(int) ((horizon >>> (WHEEL_BITS * top)) & WHEEL_MASK)].offer(entry);
+	}
+
+	// a slot of the wheel; a named class so that the wheel can be a plain array
+	private static final class Slot extends ArrayDeque<ActorEntry> {
+		private static final long serialVersionUID = 1L;
+	}
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright IBM Corporation 2020,2021
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ibm.research.kar.actor.runtime;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.concurrent.CompletionStage;
+
+import com.ibm.research.kar.actor.ActorInstance;
+
+/**
+ * A @Remote method of an actor type, prepared for fast invocation.
+ *
+ * The method handle is adapted once, when the actor type is registered, to
+ * the fixed shape (Object, Object[])Object. Every invocation then goes
+ * through a monomorphic invokeExact instead of invokeWithArguments, which
+ * would otherwise re-derive the adaptation and copy the arguments on each
+ * call.
+ *
+ * Methods that return a CompletionStage are asynchronous: their result is
+ * the value the stage completes with.
+ */
+public final class RemoteMethod {
+
+	private static final MethodType INVOKER_TYPE = MethodType.methodType(Object.class, Object.class, Object[].class);
+
+	// name of the method
+	private final String name;
+
+	// number of parameters, not counting the receiver
+	private final int arity;
+
+	// whether the method is declared void
+	private final boolean returnsVoid;
+
+	// whether the method returns a CompletionStage
+	private final boolean async;
+
+	// whether the method returns a CompletionStage<Void>
+	private final boolean completesVoid;
+
+	// the unadapted handle
+	private final MethodHandle handle;
+
+	// handle of type INVOKER_TYPE that spreads its array argument into the parameters
+	private final MethodHandle invoker;
+
+	public RemoteMethod(Method method, MethodHandle handle) {
+		this.name = method.getName();
+		this.handle = handle;
+		this.arity = handle.type().parameterCount() - 1;
+		this.returnsVoid = handle.type().returnType() == void.class;
+		this.async = CompletionStage.class.isAssignableFrom(method.getReturnType());
+		this.completesVoid = async && completesVoid(method.getGenericReturnType());
+		this.invoker = handle.asType(MethodType.genericMethodType(arity + 1)).asSpreader(Object[].class, arity)
+				.asType(INVOKER_TYPE);
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public int getArity() {
+		return arity;
+	}
+
+	public boolean returnsVoid() {
+		return returnsVoid;
+	}
+
+	public boolean isAsync() {
+		return async;
+	}
+
+	public boolean completesVoid() {
+		return completesVoid;
+	}
+
+	public MethodHandle getHandle() {
+		return handle;
+	}
+
+	/**
+	 * Invoke the method.
+	 *
+	 * @param actor The receiver
+	 * @param args  The arguments; the array length must equal the arity
+	 * @return The result, or null if the method is void; a CompletionStage if the
+	 *         method is asynchronous
+	 */
+	public Object invoke(ActorInstance actor, Object[] args) throws Throwable {
+		return (Object) invoker.invokeExact((Object) actor, args);
+	}
+
+	// is the type CompletionStage<Void> (or a subtype parameterized with Void)?
+	private static boolean completesVoid(Type type) {
+		if (type instanceof ParameterizedType) {
+			Type[] args = ((ParameterizedType) type).getActualTypeArguments();
+			return args.length == 1 && args[0] == Void.class;
+		}
+		return false;
+	}
+}
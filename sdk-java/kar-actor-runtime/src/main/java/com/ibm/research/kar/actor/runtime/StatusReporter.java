@@ -16,19 +16,45 @@
 
 package com.ibm.research.kar.actor.runtime;
 
+import javax.inject.Inject;
+import javax.json.Json;
 import javax.ws.rs.GET;
 import javax.ws.rs.Path;
 import javax.ws.rs.Produces;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 
+import com.ibm.research.kar.Kar;
+
 @Path("system")
 public class StatusReporter {
 
+	@Inject
+	ActorManager actorManager;
+
   @GET
 	@Path("health")
 	@Produces(MediaType.TEXT_PLAIN)
 	public Response healthCheck() {
+    if (Kar.Sys.circuitBreaker().isOpen()) {
+      return Response.status(Response.Status.SERVICE_UNAVAILABLE).entity("KAR sidecar unreachable").build();
+    }
     return Response.status(Response.Status.OK).entity("Peachy Keen!").build();
   }
+
+	@GET
+	@Path("actors")
+	@Produces(MediaType.APPLICATION_JSON)
+	public Response actorCacheStatistics() {
+		ActorCacheStatistics stats = actorManager.getCacheStatistics();
+		String body = Json.createObjectBuilder()
+				.add("resident", stats.getResident())
+				.add("hits", stats.getHits())
+				.add("misses", stats.getMisses())
+				.add("evictions", stats.getEvictions())
+				.add("idlePassivations", stats.getIdlePassivations())
+				.add("reclaimedBytes", stats.getReclaimedBytes())
+				.build().toString();
+		return Response.status(Response.Status.OK).entity(body).build();
+	}
 }
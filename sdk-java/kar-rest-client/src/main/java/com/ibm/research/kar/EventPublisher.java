@@ -0,0 +1,98 @@
+/*
+ * Copyright IBM Corporation 2020,2021
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ibm.research.kar;
+
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import javax.json.JsonValue;
+
+/**
+ * Publishes events to one topic without waiting for a round trip to the
+ * sidecar per event.
+ *
+ * Each event is sent as soon as it is published, as an asynchronous publish
+ * request. At most KarConfig.TELL_WINDOW of them are in flight per publisher
+ * and publish blocks while the window is full. Being concurrent, events may be
+ * delivered to the topic out of order.
+ */
+public final class EventPublisher implements AutoCloseable {
+
+	private final String topic;
+	private final Supplier<KarRest> client;
+	private final TellWindow window;
+
+	// the publishes that the sidecar has not yet accepted
+	private final Set<CompletableFuture<Void>> inFlight = ConcurrentHashMap.newKeySet();
+
+	private volatile boolean closed;
+
+	EventPublisher(String topic, Supplier<KarRest> client) {
+		this.topic = topic;
+		this.client = client;
+		this.window = new TellWindow(KarConfig.TELL_WINDOW);
+	}
+
+	/**
+	 * @return The topic to which this publisher publishes.
+	 */
+	public String getTopic() {
+		return topic;
+	}
+
+	/**
+	 * Publish an event on the topic.
+	 *
+	 * @param event The event to publish
+	 * @return A CompletionStage that completes when the sidecar has accepted the
+	 *         event, or exceptionally if the event could not be published.
+	 */
+	public CompletionStage<Void> publish(JsonValue event) {
+		if (closed) {
+			throw new IllegalStateException("EventPublisher for topic " + topic + " is closed");
+		}
+		KarRest karClient = client.get();
+		CompletableFuture<Void> result = window.submit(() -> karClient.eventPublishAsync(topic, event))
+				.toCompletableFuture();
+		if (!result.isDone()) {
+			inFlight.add(result);
+			result.whenComplete((v, t) -> inFlight.remove(result));
+		}
+		return result;
+	}
+
+	/**
+	 * Wait for the events published so far.
+	 *
+	 * @return A CompletionStage that completes when all the events published
+	 *         before the call have been accepted by the sidecar.
+	 */
+	public CompletionStage<Void> flush() {
+		return CompletableFuture.allOf(inFlight.toArray(new CompletableFuture<?>[0]));
+	}
+
+	/**
+	 * Stop accepting new events. Events already published are still sent.
+	 */
+	@Override
+	public void close() {
+		closed = true;
+	}
+}
@@ -16,17 +16,33 @@
 
 package com.ibm.research.kar;
 
+import java.io.InputStream;
+import java.net.SocketTimeoutException;
 import java.net.URI;
+import java.net.http.HttpTimeoutException;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.BiPredicate;
+import java.util.function.Function;
 import java.util.logging.Logger;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import javax.json.Json;
 import javax.json.JsonArray;
@@ -35,6 +51,9 @@ import javax.json.JsonNumber;
 import javax.json.JsonObject;
 import javax.json.JsonObjectBuilder;
 import javax.json.JsonValue;
+import javax.json.stream.JsonParser;
+import javax.json.stream.JsonParser.Event;
+import javax.json.stream.JsonParserFactory;
 import javax.ws.rs.ProcessingException;
 import javax.ws.rs.WebApplicationException;
 import javax.ws.rs.core.MediaType;
@@ -43,11 +62,24 @@ import javax.ws.rs.core.Response.Status;
 
 import com.ibm.research.kar.actor.ActorInstance;
 import com.ibm.research.kar.actor.ActorRef;
+import com.ibm.research.kar.actor.InvocationContext;
 import com.ibm.research.kar.actor.Reminder;
+import com.ibm.research.kar.actor.SubmapPage;
 import com.ibm.research.kar.actor.Subscription;
 import com.ibm.research.kar.actor.exceptions.ActorMethodInvocationException;
 import com.ibm.research.kar.actor.exceptions.ActorMethodNotFoundException;
 import com.ibm.research.kar.actor.exceptions.ActorMethodTimeoutException;
+import com.ibm.research.kar.transport.CircuitBreaker;
+import com.ibm.research.kar.transport.CircuitBreakingKarRest;
+import com.ibm.research.kar.transport.ConcurrencyLimiter;
+import com.ibm.research.kar.transport.ContextualKarRest;
+import com.ibm.research.kar.transport.HttpClientTransport;
+import com.ibm.research.kar.transport.KarTransport;
+import com.ibm.research.kar.transport.KarRestProxy;
+import com.ibm.research.kar.transport.LimitingKarRest;
+import com.ibm.research.kar.transport.RetryBudget;
+import com.ibm.research.kar.transport.RetryingKarRest;
+import com.ibm.research.kar.transport.UnixSocketTransport;
 
 import org.eclipse.microprofile.rest.client.RestClientBuilder;
 
@@ -55,8 +87,28 @@ public class Kar {
 
 	private static final Logger logger = Logger.getLogger(Kar.class.getName());
 
+	private static final JsonParserFactory parserFactory = Json.createParserFactory(null);
+
+	// shared by the retries of all requests to the sidecar
+	private static final RetryBudget retryBudget = new RetryBudget(KarConfig.RETRY_BUDGET_PERCENT,
+			KarConfig.RETRY_MIN_PER_SECOND);
+
+	// trips when the sidecar is unreachable
+	private static final CircuitBreaker circuitBreaker = new CircuitBreaker(KarConfig.BREAKER_FAILURES,
+			KarConfig.BREAKER_SLOW_CALL_MILLIS, KarConfig.BREAKER_OPEN_MILLIS);
+
+	// adapts the requests in flight to the sidecar's latency
+	private static final ConcurrencyLimiter concurrencyLimiter = new ConcurrencyLimiter(KarConfig.LIMIT_INITIAL,
+			KarConfig.LIMIT_MIN, KarConfig.LIMIT_MAX, KarConfig.LIMIT_QUEUE, KarConfig.LIMIT_QUEUE_TIMEOUT_MILLIS);
+
+	// whether karClient stops waiting for a response when its Kar-Timeout runs out
+	private static boolean timeoutEnforced;
+
 	private static KarRest karClient = buildRestClient();
 
+	// bounds the asynchronous tells in flight
+	private static final TellWindow tellWindow = new TellWindow(KarConfig.TELL_WINDOW);
+
 	public Kar() {
 	}
 
@@ -64,18 +116,71 @@ public class Kar {
 	 * Set custom rest client
 	 */
 	public static void setRestClient(KarRest client) {
-		Kar.karClient = client;
+		Kar.timeoutEnforced = false;
+		Kar.karClient = decorate(client);
+	}
+
+	/*
+	 * Limit the requests of a client in flight, guard them with the circuit
+	 * breaker, retry them within the shared retry budget and complete them
+	 * within the invocation context of their sender
+	 */
+	private static KarRest decorate(KarRest client) {
+		if (KarConfig.LIMIT_MAX > 0) {
+			client = LimitingKarRest.wrap(client, concurrencyLimiter);
+		}
+		return ContextualKarRest.wrap(RetryingKarRest.wrap(CircuitBreakingKarRest.wrap(client, circuitBreaker),
+				retryBudget, KarConfig.MAX_RETRY, KarConfig.RETRY_BACKOFF_MILLIS, KarConfig.RETRY_MAX_BACKOFF_MILLIS));
 	}
 
 	/*
 	 * Generate REST client (used when injection not possible, e.g. tests)
 	 */
 	private static KarRest buildRestClient() {
+		KarRest client = buildTransportClient();
+		if (client != null) {
+			// the HTTP/2 and Unix socket transports enforce the Kar-Timeout header
+			timeoutEnforced = true;
+			return decorate(client);
+		}
 
 		RestClientBuilder builder = RestClientBuilder.newBuilder().baseUri(Kar.getUri());
 
-		return builder.readTimeout(KarConfig.DEFAULT_CONNECTION_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)
-				.connectTimeout(KarConfig.DEFAULT_CONNECTION_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS).build(KarRest.class);
+		return decorate(builder.readTimeout(KarConfig.DEFAULT_CONNECTION_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)
+				.connectTimeout(KarConfig.DEFAULT_CONNECTION_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS).build(KarRest.class));
+	}
+
+	/*
+	 * Generate a client on the transport selected by KarConfig.TRANSPORT, or
+	 * return null if it is the MicroProfile REST client
+	 */
+	protected static KarRest buildTransportClient() {
+		switch (KarConfig.TRANSPORT) {
+		case KarConfig.TRANSPORT_MICROPROFILE:
+			return null;
+		case KarConfig.TRANSPORT_HTTP2:
+			logger.info("Using HTTP/2 transport with " + KarConfig.TRANSPORT_POOL_SIZE + " connections to the sidecar");
+			return KarRestProxy.create(new HttpClientTransport(getUri(), KarConfig.TRANSPORT_POOL_SIZE,
+					KarConfig.DEFAULT_CONNECTION_TIMEOUT_MILLIS));
+		case KarConfig.TRANSPORT_UNIX:
+			if (KarConfig.TRANSPORT_SOCKET_PATH == null) {
+				logger.severe("KAR_JAVA_TRANSPORT_SOCKET is not set; using the MicroProfile REST client");
+				return null;
+			}
+			try {
+				KarTransport transport = new UnixSocketTransport(KarConfig.TRANSPORT_SOCKET_PATH,
+						KarConfig.TRANSPORT_POOL_SIZE, KarConfig.TRANSPORT_MAX_REQUESTS,
+						KarConfig.DEFAULT_CONNECTION_TIMEOUT_MILLIS);
+				logger.info("Using Unix domain socket transport to the sidecar at " + KarConfig.TRANSPORT_SOCKET_PATH);
+				return KarRestProxy.create(transport);
+			} catch (UnsupportedOperationException e) {
+				logger.severe(e.getMessage() + "; using the MicroProfile REST client");
+				return null;
+			}
+		default:
+			logger.warning("Unknown transport " + KarConfig.TRANSPORT + "; using the MicroProfile REST client");
+			return null;
+		}
 	}
 
 	protected static URI getUri() {
@@ -97,6 +202,56 @@ public class Kar {
 		return ja.build();
 	}
 
+	// the session of the invocation of caller running on this thread, if any
+	private static String sessionOf(ActorInstance caller) {
+		String session = InvocationContext.sessionOf(caller);
+		return session != null ? session : caller.getSession();
+	}
+
+	// The deadline of a call made now that should complete within timeoutMillis
+	// (0 for no timeout) and within the deadline of the actor invocation running on
+	// this thread, or 0 if there is neither.
+	private static long deadlineAfter(long timeoutMillis) {
+		long deadline = timeoutMillis > 0 ? System.currentTimeMillis() + timeoutMillis : 0;
+		InvocationContext context = InvocationContext.current();
+		if (context != null && context.getDeadline() != 0 && (deadline == 0 || context.getDeadline() < deadline)) {
+			deadline = context.getDeadline();
+		}
+		return deadline;
+	}
+
+	// the transport gave up waiting for the response
+	private static boolean isTimeout(Throwable t) {
+		for (; t != null; t = t.getCause()) {
+			if (t instanceof SocketTimeoutException || t instanceof HttpTimeoutException || t instanceof TimeoutException) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	// Wait at most remaining milliseconds for a response on a client that does not
+	// enforce the Kar-Timeout header itself
+	private static Response await(CompletionStage<Response> stage, long remaining) throws TimeoutException {
+		CompletableFuture<Response> response = stage.toCompletableFuture();
+		try {
+			return response.get(remaining, TimeUnit.MILLISECONDS);
+		} catch (TimeoutException e) {
+			response.cancel(true);
+			throw e;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			response.cancel(true);
+			throw new ProcessingException(e);
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+			throw new ProcessingException(cause);
+		}
+	}
+
 	private static Object toValue(Response response) {
 		if (response.hasEntity()) {
 			MediaType type = response.getMediaType();
@@ -134,6 +289,120 @@ public class Kar {
 		return null;
 	}
 
+	private static int toCreated(Response response) {
+		return response.getStatus() == Status.CREATED.getStatusCode() ? 1 : 0;
+	}
+
+	private static boolean isOk(Response response) {
+		return response != null && response.getStatus() == Status.OK.getStatusCode();
+	}
+
+	private static Map<String, JsonValue> toMap(Response response) {
+		try {
+			return ((JsonValue) toValue(response)).asJsonObject();
+		} catch (ClassCastException e) {
+			return Collections.emptyMap();
+		}
+	}
+
+	// Walk the entries of a JSON object response without building the object,
+	// stopping as soon as the action returns false
+	private static void forEachEntry(Response response, BiPredicate<String, JsonValue> action) {
+		if (!response.hasEntity()) {
+			return;
+		}
+		MediaType type = response.getMediaType();
+		MediaType basicType = new MediaType(type.getType(), type.getSubtype());
+		if (!basicType.equals(MediaType.APPLICATION_JSON_TYPE) && !basicType.equals(KarRest.KAR_ACTOR_JSON_TYPE)) {
+			return;
+		}
+		try (JsonParser parser = parserFactory.createParser(response.readEntity(InputStream.class))) {
+			if (!parser.hasNext() || parser.next() != Event.START_OBJECT) {
+				return;
+			}
+			while (parser.hasNext() && parser.next() == Event.KEY_NAME) {
+				String key = parser.getString();
+				parser.next();
+				if (!action.test(key, parser.getValue())) {
+					return;
+				}
+			}
+		}
+	}
+
+	private static <M extends Map<String, JsonValue>> M putEntries(Response response, M map) {
+		forEachEntry(response, (key, value) -> {
+			map.put(key, value);
+			return true;
+		});
+		return map;
+	}
+
+	private static String[] toKeys(Response response) {
+		Object[] jstrings = ((JsonValue) toValue(response)).asJsonArray().toArray();
+		String[] ans = new String[jstrings.length];
+		for (int i = 0; i < jstrings.length; i++) {
+			ans[i] = ((JsonValue) jstrings[i]).toString();
+		}
+		return ans;
+	}
+
+	private static JsonObject submapOp(String op) {
+		return Json.createObjectBuilder().add("op", Json.createValue(op)).build();
+	}
+
+	private static JsonObject updateOp(Map<String, JsonValue> updates) {
+		JsonObjectBuilder jb = Json.createObjectBuilder();
+		for (Entry<String, JsonValue> e : updates.entrySet()) {
+			jb.add(e.getKey(), e.getValue());
+		}
+		JsonObject jup = jb.build();
+		JsonObjectBuilder pb = Json.createObjectBuilder();
+		pb.add("op", Json.createValue("update"));
+		pb.add("updates", jup);
+		return pb.build();
+	}
+
+	private static JsonObject clearSomeOp(List<String> keys) {
+		JsonArrayBuilder jb = Json.createArrayBuilder();
+		for (String key : keys) {
+			jb.add(key);
+		}
+		JsonArray removals = jb.build();
+		JsonObjectBuilder pb = Json.createObjectBuilder();
+		pb.add("op", Json.createValue("clearSome"));
+		pb.add("removals", removals);
+		return pb.build();
+	}
+
+	// The asynchronous counterpart of catching the WebApplicationException raised
+	// for an error status: the response is mapped by onError instead of onSuccess.
+	private static <T> CompletionStage<T> recover(CompletionStage<Response> stage, Function<Response, T> onSuccess,
+			Function<Response, T> onError) {
+		return stage.handle((response, t) -> {
+			if (t == null) {
+				return onSuccess.apply(response);
+			}
+			Throwable cause = t instanceof CompletionException && t.getCause() != null ? t.getCause() : t;
+			if (cause instanceof WebApplicationException) {
+				return onError.apply(((WebApplicationException) cause).getResponse());
+			}
+			throw t instanceof CompletionException ? (CompletionException) t : new CompletionException(t);
+		});
+	}
+
+	// Wait for a stage, throwing what it failed with as the synchronous call would
+	private static <T> T join(CompletionStage<T> stage) {
+		try {
+			return stage.toCompletableFuture().join();
+		} catch (CompletionException e) {
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+			throw e;
+		}
+	}
+
 	private static Reminder[] toReminderArray(Response response) {
 		try {
 			ArrayList<Reminder> res = new ArrayList<Reminder>();
@@ -421,6 +690,22 @@ public class Kar {
 			karClient.tellPost(service, path, body);
 		}
 
+		/**
+		 * Asynchronous service invocation that does not wait for the invocation to
+		 * be initiated. At most KarConfig.TELL_WINDOW asynchronous tells are in
+		 * flight at any time; when the window is full this method blocks until one
+		 * of them completes.
+		 *
+		 * @param service The name of the service to invoke.
+		 * @param path    The service endpoint to invoke.
+		 * @param body    The request body with which to invoke the service endpoint.
+		 * @return A CompletionStage that completes when the invocation has been
+		 *         initiated, or exceptionally if it could not be.
+		 */
+		public static CompletionStage<Void> tellAsync(String service, String path, JsonValue body) {
+			return tellWindow.submit(() -> karClient.tellPostAsync(service, path, body));
+		}
+
 		/**
 		 * Synchronous service invocation
 		 *
@@ -430,10 +715,48 @@ public class Kar {
 		 * @return The result returned by the target service.
 		 */
 		public static Object call(String service, String path, JsonValue body) {
+			long deadline = deadlineAfter(0);
+			if (deadline != 0) {
+				return callService(service, path, body, deadline);
+			}
 			Response resp = karClient.callPost(service, path, body);
 			return toValue(resp);
 		}
 
+		/**
+		 * Synchronous service invocation, abandoned if it does not complete within a
+		 * timeout.
+		 *
+		 * @param service The name of the service to invoke.
+		 * @param path    The service endpoint to invoke.
+		 * @param body    The request body with which to invoke the service endpoint.
+		 * @param timeout The time to wait for the result; an earlier deadline of the
+		 *                current actor invocation takes precedence.
+		 * @return The result returned by the target service.
+		 */
+		public static Object call(String service, String path, JsonValue body, Duration timeout) {
+			return callService(service, path, body, deadlineAfter(timeout.toMillis()));
+		}
+
+		// The remaining time is sent in the Kar-Timeout header, which the sidecar
+		// passes on to the service with the other request headers. The HTTP/2 and Unix
+		// socket transports stop waiting when it runs out; on other clients the caller
+		// waits for the response itself.
+		private static Object callService(String service, String path, JsonValue body, long deadline) {
+			long remaining = deadline - System.currentTimeMillis();
+			if (remaining <= 0) {
+				throw new ProcessingException(new TimeoutException("Deadline expired before calling " + service + "/" + path));
+			}
+			if (timeoutEnforced) {
+				return toValue(karClient.callPost(service, path, remaining, body));
+			}
+			try {
+				return toValue(await(karClient.callAsyncPost(service, path, remaining, body), remaining));
+			} catch (TimeoutException e) {
+				throw new ProcessingException(new TimeoutException("Deadline expired calling " + service + "/" + path));
+			}
+		}
+
 		/**
 		 * Aynchronous service invocation with eventual access to the result of the
 		 * invocation
@@ -486,6 +809,45 @@ public class Kar {
 			karClient.actorTell(actor.getType(), actor.getId(), path, packArgs(args));
 		}
 
+		/**
+		 * Asynchronous actor invocation that does not wait for the invocation to be
+		 * initiated. At most KarConfig.TELL_WINDOW asynchronous tells are in flight at
+		 * any time; when the window is full this method blocks until one of them
+		 * completes.
+		 *
+		 * @param actor The target actor.
+		 * @param path  The actor method to invoke.
+		 * @param args  The arguments with which to invoke the actor method.
+		 * @return A CompletionStage that completes when the invocation has been
+		 *         initiated, or exceptionally if it could not be.
+		 */
+		public static CompletionStage<Void> tellAsync(ActorRef actor, String path, JsonValue... args) {
+			JsonArray packed = packArgs(args);
+			return tellWindow.submit(() -> karClient.actorTellAsync(actor.getType(), actor.getId(), path, packed));
+		}
+
+		/**
+		 * Asynchronous invocation of the same actor method on many actors. The
+		 * invocations are pipelined through the window of tellAsync.
+		 *
+		 * @param actors The target actors.
+		 * @param path   The actor method to invoke.
+		 * @param args   The arguments with which to invoke the actor method.
+		 * @return A CompletionStage that completes when all the invocations have
+		 *         been initiated, or exceptionally if any could not be.
+		 */
+		public static CompletionStage<Void> tellAll(List<? extends ActorRef> actors, String path, JsonValue... args) {
+			JsonArray packed = packArgs(args);
+			CompletableFuture<?>[] results = new CompletableFuture<?>[actors.size()];
+			int i = 0;
+			for (ActorRef actor : actors) {
+				results[i++] = tellWindow
+						.submit(() -> karClient.actorTellAsync(actor.getType(), actor.getId(), path, packed))
+						.toCompletableFuture();
+			}
+			return CompletableFuture.allOf(results);
+		}
+
 		/**
 		 * Synchronous actor invocation where the invoked method will execute as part of
 		 * the current session.
@@ -498,21 +860,25 @@ public class Kar {
 		 */
 		public static JsonValue call(ActorInstance caller, ActorRef actor, String path, JsonValue... args)
 				throws ActorMethodNotFoundException, ActorMethodInvocationException {
-			try {
-				Response response = karClient.actorCall(actor.getType(), actor.getId(), path, caller.getSession(),
-						packArgs(args));
-				return callProcessResponse(response);
-			} catch (WebApplicationException e) {
-				if (e.getResponse() != null && e.getResponse().getStatus() == 404) {
-					String msg = responseToString(e.getResponse());
-					throw new ActorMethodNotFoundException(msg != null ? msg : "Not found: " + actor.getType() + "[" +actor.getId() + "]." + path, e);
-				} else if (e.getResponse() != null && e.getResponse().getStatus() == 408) {
-					throw new ActorMethodTimeoutException(
-							"Method timeout: " + actor.getType() + "[" + actor.getId() + "]." + path);
-				} else {
-					throw e;
-				}
-			}
+			return callActor(actor, path, sessionOf(caller), deadlineAfter(0), packArgs(args));
+		}
+
+		/**
+		 * Synchronous actor invocation where the invoked method will execute as part of
+		 * the current session, abandoned if it does not complete within a timeout.
+		 *
+		 * @param caller  The calling actor.
+		 * @param actor   The target actor.
+		 * @param path    The actor method to invoke.
+		 * @param timeout The time to wait for the result; an earlier deadline of the
+		 *                current invocation takes precedence.
+		 * @param args    The arguments with which to invoke the actor method.
+		 * @return The result of the invoked actor method.
+		 */
+		public static JsonValue call(ActorInstance caller, ActorRef actor, String path, Duration timeout,
+				JsonValue... args)
+				throws ActorMethodNotFoundException, ActorMethodInvocationException, ActorMethodTimeoutException {
+			return callActor(actor, path, sessionOf(caller), deadlineAfter(timeout.toMillis()), packArgs(args));
 		}
 
 		/**
@@ -527,20 +893,7 @@ public class Kar {
 		 */
 		public static JsonValue call(String session, ActorRef actor, String path, JsonValue... args)
 				throws ActorMethodNotFoundException, ActorMethodInvocationException, ActorMethodTimeoutException {
-			try {
-				Response response = karClient.actorCall(actor.getType(), actor.getId(), path, session, packArgs(args));
-				return callProcessResponse(response);
-			} catch (WebApplicationException e) {
-				if (e.getResponse() != null && e.getResponse().getStatus() == 404) {
-					String msg = responseToString(e.getResponse());
-					throw new ActorMethodNotFoundException(msg != null ? msg : "Not found: " + actor.getType() + "[" +actor.getId() + "]." + path, e);
-				} else if (e.getResponse() != null && e.getResponse().getStatus() == 408) {
-					throw new ActorMethodTimeoutException(
-							"Method timeout: " + actor.getType() + "[" + actor.getId() + "]." + path);
-				} else {
-					throw e;
-				}
-			}
+			return callActor(actor, path, session, deadlineAfter(0), packArgs(args));
 		}
 
 		/**
@@ -554,9 +907,56 @@ public class Kar {
 		 */
 		public static JsonValue call(ActorRef actor, String path, JsonValue... args)
 				throws ActorMethodNotFoundException, ActorMethodInvocationException {
+			return callActor(actor, path, null, deadlineAfter(0), packArgs(args));
+		}
+
+		/**
+		 * Synchronous actor invocation where the invoked method will execute in a new
+		 * session, abandoned if it does not complete within a timeout.
+		 *
+		 * @param actor   The target Actor.
+		 * @param path    The actor method to invoke.
+		 * @param timeout The time to wait for the result; an earlier deadline of the
+		 *                current invocation takes precedence.
+		 * @param args    The arguments with which to invoke the actor method.
+		 * @return The result of the invoked actor method.
+		 */
+		public static JsonValue call(ActorRef actor, String path, Duration timeout, JsonValue... args)
+				throws ActorMethodNotFoundException, ActorMethodInvocationException, ActorMethodTimeoutException {
+			return callActor(actor, path, null, deadlineAfter(timeout.toMillis()), packArgs(args));
+		}
+
+		// Internal helper for the synchronous calls. With a deadline, the remaining time
+		// is sent in the Kar-Timeout header. The HTTP/2 and Unix socket transports stop
+		// waiting when it runs out; on other clients the caller waits for the response
+		// itself. The sidecar does not pass the header on to the invoked actor.
+		private static JsonValue callActor(ActorRef actor, String path, String session, long deadline, JsonArray args)
+				throws ActorMethodNotFoundException, ActorMethodInvocationException, ActorMethodTimeoutException {
 			try {
-				Response response = karClient.actorCall(actor.getType(), actor.getId(), path, null, packArgs(args));
-				return callProcessResponse(response);
+				if (deadline == 0) {
+					return callProcessResponse(karClient.actorCall(actor.getType(), actor.getId(), path, session, args));
+				}
+				long remaining = deadline - System.currentTimeMillis();
+				if (remaining <= 0) {
+					throw new ActorMethodTimeoutException(
+							"Deadline expired before calling " + actor.getType() + "[" + actor.getId() + "]." + path);
+				}
+				try {
+					if (timeoutEnforced) {
+						return callProcessResponse(karClient.actorCall(actor.getType(), actor.getId(), path, session, remaining, args));
+					}
+					return callProcessResponse(
+							await(karClient.actorCallAsync(actor.getType(), actor.getId(), path, session, remaining, args), remaining));
+				} catch (TimeoutException e) {
+					throw new ActorMethodTimeoutException(
+							"Deadline expired calling " + actor.getType() + "[" + actor.getId() + "]." + path);
+				} catch (ProcessingException e) {
+					if (isTimeout(e)) {
+						throw new ActorMethodTimeoutException(
+								"Deadline expired calling " + actor.getType() + "[" + actor.getId() + "]." + path);
+					}
+					throw e;
+				}
 			} catch (WebApplicationException e) {
 				if (e.getResponse() != null && e.getResponse().getStatus() == 404) {
 					String msg = responseToString(e.getResponse());
@@ -593,11 +993,10 @@ public class Kar {
 			if (response.getStatus() == Status.OK.getStatusCode()) {
 				JsonObject o = ((JsonValue) toValue(response)).asJsonObject();
 				if (o.containsKey("error")) {
-					String message = o.containsKey("message") ? o.getString("message") : "Unknown error";
-					Throwable cause = o.containsKey("stack") ? new Throwable(o.getString("stack")) : null;
-					cause.setStackTrace(new StackTraceElement[0]); // avoid duplicating the stack trace where we are creating this
-																													// dummy exception...the real stack is in the msg.
-					throw new ActorMethodInvocationException(message, cause);
+					String message = o.getString("message", "Unknown error");
+					String code = o.getString("code", null);
+					String stack = o.getString("stack", null); // may be omitted by the actor runtime
+					throw new ActorMethodInvocationException(message, code, stack);
 				} else {
 					return o.containsKey("value") ? o.get("value") : JsonValue.NULL;
 				}
@@ -630,6 +1029,17 @@ public class Kar {
 				return toInt(response);
 			}
 
+			/**
+			 * Asynchronously cancel all reminders for an Actor instance.
+			 *
+			 * @param actor The Actor instance.
+			 * @return A CompletionStage containing the number of reminders that were
+			 *         cancelled.
+			 */
+			public static CompletionStage<Integer> cancelAllAsync(ActorRef actor) {
+				return karClient.actorCancelRemindersAsync(actor.getType(), actor.getId()).thenApply(Kar::toInt);
+			}
+
 			/**
 			 * Cancel a specific reminder for an Actor instance.
 			 *
@@ -642,6 +1052,19 @@ public class Kar {
 				return toInt(response);
 			}
 
+			/**
+			 * Asynchronously cancel a specific reminder for an Actor instance.
+			 *
+			 * @param actor      The Actor instance.
+			 * @param reminderId The id of a specific reminder to cancel
+			 * @return A CompletionStage containing the number of reminders that were
+			 *         cancelled.
+			 */
+			public static CompletionStage<Integer> cancelAsync(ActorRef actor, String reminderId) {
+				return karClient.actorCancelReminderAsync(actor.getType(), actor.getId(), reminderId, true)
+						.thenApply(Kar::toInt);
+			}
+
 			/**
 			 * Get all reminders for an Actor instance.
 			 *
@@ -653,6 +1076,16 @@ public class Kar {
 				return toReminderArray(response);
 			}
 
+			/**
+			 * Asynchronously get all reminders for an Actor instance.
+			 *
+			 * @param actor The Actor instance.
+			 * @return A CompletionStage containing an array of matching reminders
+			 */
+			public static CompletionStage<Reminder[]> getAllAsync(ActorRef actor) {
+				return karClient.actorGetRemindersAsync(actor.getType(), actor.getId()).thenApply(Kar::toReminderArray);
+			}
+
 			/**
 			 * Get a specific reminder for an Actor instance.
 			 *
@@ -665,6 +1098,18 @@ public class Kar {
 				return toReminderArray(response);
 			}
 
+			/**
+			 * Asynchronously get a specific reminder for an Actor instance.
+			 *
+			 * @param actor      The Actor instance.
+			 * @param reminderId The id of a specific reminder to get
+			 * @return A CompletionStage containing an array of matching reminders
+			 */
+			public static CompletionStage<Reminder[]> getAsync(ActorRef actor, String reminderId) {
+				return karClient.actorGetReminderAsync(actor.getType(), actor.getId(), reminderId, true)
+						.thenApply(Kar::toReminderArray);
+			}
+
 			/**
 			 * Schedule a reminder for an Actor instance.
 			 *
@@ -678,6 +1123,30 @@ public class Kar {
 			 */
 			public static void schedule(ActorRef actor, String path, String reminderId, Instant targetTime, Duration period,
 					JsonValue... args) {
+				JsonObject requestBody = reminderParams(path, targetTime, period, args);
+				karClient.actorScheduleReminder(actor.getType(), actor.getId(), reminderId, requestBody);
+			}
+
+			/**
+			 * Asynchronously schedule a reminder for an Actor instance.
+			 *
+			 * @param actor      The Actor instance.
+			 * @param path       The actor method to invoke when the reminder fires.
+			 * @param reminderId The id of the reminder being scheduled
+			 * @param targetTime The earliest time at which the reminder should be delivered
+			 * @param period     For periodic reminders, a String that is compatible with
+			 *                   GoLang's Duration
+			 * @param args       The arguments with which to invoke the actor method.
+			 * @return A CompletionStage that completes when the reminder is scheduled.
+			 */
+			public static CompletionStage<Void> scheduleAsync(ActorRef actor, String path, String reminderId,
+					Instant targetTime, Duration period, JsonValue... args) {
+				JsonObject requestBody = reminderParams(path, targetTime, period, args);
+				return karClient.actorScheduleReminderAsync(actor.getType(), actor.getId(), reminderId, requestBody)
+						.thenApply(response -> null);
+			}
+
+			private static JsonObject reminderParams(String path, Instant targetTime, Duration period, JsonValue[] args) {
 				JsonObjectBuilder builder = Json.createObjectBuilder();
 				builder.add("path", "/" + path);
 				builder.add("targetTime", targetTime.toString());
@@ -698,9 +1167,7 @@ public class Kar {
 					builder.add("period", goPeriod);
 				}
 				builder.add("data", packArgs(args));
-				JsonObject requestBody = builder.build();
-
-				karClient.actorScheduleReminder(actor.getType(), actor.getId(), reminderId, requestBody);
+				return builder.build();
 			}
 		}
 
@@ -727,6 +1194,42 @@ public class Kar {
 				return value;
 			}
 
+			/**
+			 * Asynchronously get one value from an Actor's state
+			 *
+			 * @param actor The Actor instance.
+			 * @param key   The key to use to access the instance's state
+			 * @return A CompletionStage containing the value associated with `key`
+			 */
+			public static CompletionStage<JsonValue> getAsync(ActorRef actor, String key) {
+				return recover(karClient.actorGetStateAsync(actor.getType(), actor.getId(), key, true),
+						resp -> (JsonValue) toValue(resp), resp -> JsonValue.NULL);
+			}
+
+			/**
+			 * Get several values from an Actor's state with pipelined requests
+			 *
+			 * @param actor The Actor instance.
+			 * @param keys  The keys to use to access the instance's state
+			 * @return A map of the keys that have a value to their values
+			 */
+			public static Map<String, JsonValue> getMany(ActorRef actor, Collection<String> keys) {
+				return join(getManyAsync(actor, keys));
+			}
+
+			/**
+			 * Asynchronously get several values from an Actor's state with pipelined
+			 * requests
+			 *
+			 * @param actor The Actor instance.
+			 * @param keys  The keys to use to access the instance's state
+			 * @return A CompletionStage containing a map of the keys that have a value
+			 *         to their values
+			 */
+			public static CompletionStage<Map<String, JsonValue>> getManyAsync(ActorRef actor, Collection<String> keys) {
+				return StateReader.getMany(karClient, actor, null, keys);
+			}
+
 			/**
 			 * Get all of an Actor's state.
 			 *
@@ -735,11 +1238,42 @@ public class Kar {
 			 */
 			public static Map<String, JsonValue> getAll(ActorRef actor) {
 				Response response = karClient.actorGetAllState(actor.getType(), actor.getId());
-				try {
-					return ((JsonValue) toValue(response)).asJsonObject();
-				} catch (ClassCastException e) {
-					return Collections.emptyMap();
-				}
+				return toMap(response);
+			}
+
+			/**
+			 * Asynchronously get all of an Actor's state.
+			 *
+			 * @param actor The Actor instance.
+			 * @return A CompletionStage containing a map representing the Actor's state
+			 */
+			public static CompletionStage<Map<String, JsonValue>> getAllAsync(ActorRef actor) {
+				return karClient.actorGetAllStateAsync(actor.getType(), actor.getId()).thenApply(Kar::toMap);
+			}
+
+			/**
+			 * Get all of an Actor's state into a map, decoding the entries one at a
+			 * time rather than building the whole state first.
+			 *
+			 * @param actor The Actor instance.
+			 * @param map   The map to put the entries into
+			 * @return `map`
+			 */
+			public static <M extends Map<String, JsonValue>> M getAll(ActorRef actor, M map) {
+				Response response = karClient.actorGetAllState(actor.getType(), actor.getId());
+				return putEntries(response, map);
+			}
+
+			/**
+			 * Pass each entry of an Actor's state to an action as it is decoded. No
+			 * further entries are decoded once the action returns false.
+			 *
+			 * @param actor  The Actor instance.
+			 * @param action The action to apply to each key and value
+			 */
+			public static void forEach(ActorRef actor, BiPredicate<String, JsonValue> action) {
+				Response response = karClient.actorGetAllState(actor.getType(), actor.getId());
+				forEachEntry(response, action);
 			}
 
 			/**
@@ -757,11 +1291,23 @@ public class Kar {
 				} catch (WebApplicationException e) {
 					resp = e.getResponse();
 				}
-				return resp != null && resp.getStatus() == Status.OK.getStatusCode();
+				return isOk(resp);
 			}
 
 			/**
-			 * Store one value to an Actor's state
+			 * Asynchronously check to see if an entry exists in an Actor's state
+			 *
+			 * @param actor The Actor instance.
+			 * @param key   The key to check against the instance's state
+			 * @return A CompletionStage containing `true` if the actor instance has a
+			 *         value defined for `key`, `false` otherwise.
+			 */
+			public static CompletionStage<Boolean> containsAsync(ActorRef actor, String key) {
+				return recover(karClient.actorHeadStateAsync(actor.getType(), actor.getId(), key), Kar::isOk, Kar::isOk);
+			}
+
+			/**
+			 * Store one value to an Actor's state
 			 *
 			 * @param actor The Actor instance.
 			 * @param key   The key to use to access the instance's state
@@ -770,7 +1316,20 @@ public class Kar {
 			 */
 			public static int set(ActorRef actor, String key, JsonValue value) {
 				Response response = karClient.actorSetState(actor.getType(), actor.getId(), key, value);
-				return response.getStatus() == Status.CREATED.getStatusCode() ? 1 : 0;
+				return toCreated(response);
+			}
+
+			/**
+			 * Asynchronously store one value to an Actor's state
+			 *
+			 * @param actor The Actor instance.
+			 * @param key   The key to use to access the instance's state
+			 * @param value The value to store
+			 * @return A CompletionStage containing the number of new state entries
+			 *         created by this store (0 or 1)
+			 */
+			public static CompletionStage<Integer> setAsync(ActorRef actor, String key, JsonValue value) {
+				return karClient.actorSetStateAsync(actor.getType(), actor.getId(), key, value).thenApply(Kar::toCreated);
 			}
 
 			/**
@@ -783,19 +1342,24 @@ public class Kar {
 			public static int set(ActorRef actor, Map<String, JsonValue> updates) {
 				if (updates.isEmpty())
 					return 0;
-				JsonObjectBuilder jb = Json.createObjectBuilder();
-				for (Entry<String, JsonValue> e : updates.entrySet()) {
-					jb.add(e.getKey(), e.getValue());
-				}
-				JsonObject jup = jb.build();
-				JsonObjectBuilder pb = Json.createObjectBuilder();
-				pb.add("op", Json.createValue("update"));
-				pb.add("updates", jup);
-				JsonObject params = pb.build();
-				Response response = karClient.actorMapop(actor.getType(), actor.getId(), params);
+				Response response = karClient.actorMapop(actor.getType(), actor.getId(), updateOp(updates));
 				return toInt(response);
 			}
 
+			/**
+			 * Asynchronously store multiple values to an Actor's state
+			 *
+			 * @param actor   The Actor instance.
+			 * @param updates A map containing the state updates to perform
+			 * @return A CompletionStage containing the number of new state entries
+			 *         created by this operation
+			 */
+			public static CompletionStage<Integer> setAsync(ActorRef actor, Map<String, JsonValue> updates) {
+				if (updates.isEmpty())
+					return CompletableFuture.completedFuture(0);
+				return karClient.actorMapopAsync(actor.getType(), actor.getId(), updateOp(updates)).thenApply(Kar::toInt);
+			}
+
 			/**
 			 * Remove one value from an Actor's state
 			 *
@@ -809,6 +1373,18 @@ public class Kar {
 				return toInt(response);
 			}
 
+			/**
+			 * Asynchronously remove one value from an Actor's state
+			 *
+			 * @param actor The Actor instance.
+			 * @param key   The key to delete
+			 * @return A CompletionStage containing `1` if an entry was actually removed
+			 *         and `0` if there was no entry for `key`.
+			 */
+			public static CompletionStage<Integer> removeAsync(ActorRef actor, String key) {
+				return karClient.actorDeleteStateAsync(actor.getType(), actor.getId(), key, true).thenApply(Kar::toInt);
+			}
+
 			/**
 			 * Remove multiple values from an Actor's state
 			 *
@@ -819,19 +1395,24 @@ public class Kar {
 			public static int removeAll(ActorRef actor, List<String> keys) {
 				if (keys.isEmpty())
 					return 0;
-				JsonArrayBuilder jb = Json.createArrayBuilder();
-				for (String key : keys) {
-					jb.add(key);
-				}
-				JsonArray removals = jb.build();
-				JsonObjectBuilder pb = Json.createObjectBuilder();
-				pb.add("op", Json.createValue("clearSome"));
-				pb.add("removals", removals);
-				JsonObject params = pb.build();
-				Response response = karClient.actorMapop(actor.getType(), actor.getId(), params);
+				Response response = karClient.actorMapop(actor.getType(), actor.getId(), clearSomeOp(keys));
 				return toInt(response);
 			}
 
+			/**
+			 * Asynchronously remove multiple values from an Actor's state
+			 *
+			 * @param actor The Actor instance.
+			 * @param keys  The keys to delete
+			 * @return A CompletionStage containing the number of entries actually
+			 *         removed
+			 */
+			public static CompletionStage<Integer> removeAllAsync(ActorRef actor, List<String> keys) {
+				if (keys.isEmpty())
+					return CompletableFuture.completedFuture(0);
+				return karClient.actorMapopAsync(actor.getType(), actor.getId(), clearSomeOp(keys)).thenApply(Kar::toInt);
+			}
+
 			/**
 			 * Remove all elements of an Actor's user level state. Unlike
 			 * {@link Actors#remove} this method is synchronous and does not remove the
@@ -845,6 +1426,18 @@ public class Kar {
 				return toInt(response);
 			}
 
+			/**
+			 * Asynchronously remove all elements of an Actor's user level state. Like
+			 * {@link #removeAll(ActorRef)} this does not remove the KAR-level mapping
+			 * of the instance to a specific runtime Process.
+			 *
+			 * @param actor The Actor instance.
+			 * @return A CompletionStage containing the number of removed key/value pairs
+			 */
+			public static CompletionStage<Integer> removeAllAsync(ActorRef actor) {
+				return karClient.actorDeleteAllStateAsync(actor.getType(), actor.getId()).thenApply(Kar::toInt);
+			}
+
 			/**
 			 * KAR API methods for ptimized operations for storing a map as a nested element
 			 * of an Actor's state.
@@ -869,6 +1462,48 @@ public class Kar {
 					return value;
 				}
 
+				/**
+				 * Asynchronously get one value from a submap of an Actor's state
+				 *
+				 * @param actor  The Actor instance.
+				 * @param submap The name of the submap
+				 * @param key    The subkey to use to access the instance's state
+				 * @return A CompletionStage containing the value associated with
+				 *         `key/subkey`
+				 */
+				public static CompletionStage<JsonValue> getAsync(ActorRef actor, String submap, String key) {
+					return recover(karClient.actorGetWithSubkeyStateAsync(actor.getType(), actor.getId(), submap, key, true),
+							resp -> (JsonValue) toValue(resp), resp -> JsonValue.NULL);
+				}
+
+				/**
+				 * Get several values from a submap of an Actor's state with pipelined
+				 * requests
+				 *
+				 * @param actor  The Actor instance.
+				 * @param submap The name of the submap
+				 * @param keys   The subkeys to use to access the instance's state
+				 * @return A map of the subkeys that have a value to their values
+				 */
+				public static Map<String, JsonValue> getMany(ActorRef actor, String submap, Collection<String> keys) {
+					return join(getManyAsync(actor, submap, keys));
+				}
+
+				/**
+				 * Asynchronously get several values from a submap of an Actor's state with
+				 * pipelined requests
+				 *
+				 * @param actor  The Actor instance.
+				 * @param submap The name of the submap
+				 * @param keys   The subkeys to use to access the instance's state
+				 * @return A CompletionStage containing a map of the subkeys that have a
+				 *         value to their values
+				 */
+				public static CompletionStage<Map<String, JsonValue>> getManyAsync(ActorRef actor, String submap,
+						Collection<String> keys) {
+					return StateReader.getMany(karClient, actor, submap, keys);
+				}
+
 				/**
 				 * Get all key/value pairs of the given submap
 				 *
@@ -877,15 +1512,47 @@ public class Kar {
 				 * @return An array containing the currently defined subkeys
 				 */
 				public static Map<String, JsonValue> getAll(ActorRef actor, String submap) {
-					JsonObjectBuilder jb = Json.createObjectBuilder();
-					jb.add("op", Json.createValue("get"));
-					JsonObject params = jb.build();
-					Response response = karClient.actorSubmapOp(actor.getType(), actor.getId(), submap, params);
-					try {
-						return ((JsonValue) toValue(response)).asJsonObject();
-					} catch (ClassCastException e) {
-						return Collections.emptyMap();
-					}
+					Response response = karClient.actorSubmapOp(actor.getType(), actor.getId(), submap, submapOp("get"));
+					return toMap(response);
+				}
+
+				/**
+				 * Asynchronously get all key/value pairs of the given submap
+				 *
+				 * @param actor  The Actor instance
+				 * @param submap The name of the submap
+				 * @return A CompletionStage containing a map of the submap's entries
+				 */
+				public static CompletionStage<Map<String, JsonValue>> getAllAsync(ActorRef actor, String submap) {
+					return karClient.actorSubmapOpAsync(actor.getType(), actor.getId(), submap, submapOp("get"))
+							.thenApply(Kar::toMap);
+				}
+
+				/**
+				 * Get all key/value pairs of the given submap into a map, decoding them
+				 * one at a time rather than building the whole submap first.
+				 *
+				 * @param actor  The Actor instance
+				 * @param submap The name of the submap
+				 * @param map    The map to put the entries into
+				 * @return `map`
+				 */
+				public static <M extends Map<String, JsonValue>> M getAll(ActorRef actor, String submap, M map) {
+					Response response = karClient.actorSubmapOp(actor.getType(), actor.getId(), submap, submapOp("get"));
+					return putEntries(response, map);
+				}
+
+				/**
+				 * Pass each key/value pair of the given submap to an action as it is
+				 * decoded. No further pairs are decoded once the action returns false.
+				 *
+				 * @param actor  The Actor instance
+				 * @param submap The name of the submap
+				 * @param action The action to apply to each subkey and value
+				 */
+				public static void forEach(ActorRef actor, String submap, BiPredicate<String, JsonValue> action) {
+					Response response = karClient.actorSubmapOp(actor.getType(), actor.getId(), submap, submapOp("get"));
+					forEachEntry(response, action);
 				}
 
 				/**
@@ -904,7 +1571,22 @@ public class Kar {
 					} catch (WebApplicationException e) {
 						resp = e.getResponse();
 					}
-					return resp != null && resp.getStatus() == Status.OK.getStatusCode();
+					return isOk(resp);
+				}
+
+				/**
+				 * Asynchronously check to see if an entry exists in a submap in an Actor's
+				 * state
+				 *
+				 * @param actor  The Actor instance.
+				 * @param submap The name of the submap
+				 * @param key    The key to check for in the given submap
+				 * @return A CompletionStage containing `true` if the actor instance has a
+				 *         value defined for `key/subkey`, `false` otherwise.
+				 */
+				public static CompletionStage<Boolean> containsAsync(ActorRef actor, String submap, String key) {
+					return recover(karClient.actorHeadWithSubkeyStateAsync(actor.getType(), actor.getId(), submap, key),
+							Kar::isOk, Kar::isOk);
 				}
 
 				/**
@@ -918,7 +1600,22 @@ public class Kar {
 				 */
 				public static int set(ActorRef actor, String submap, String key, JsonValue value) {
 					Response response = karClient.actorSetWithSubkeyState(actor.getType(), actor.getId(), submap, key, value);
-					return response.getStatus() == Status.CREATED.getStatusCode() ? 1 : 0;
+					return toCreated(response);
+				}
+
+				/**
+				 * Asynchronously store one value to a submap in an Actor's state
+				 *
+				 * @param actor  The Actor instance.
+				 * @param submap The name of the submap to update
+				 * @param key    The key in the submap to update
+				 * @param value  The value to store at `key/subkey`
+				 * @return A CompletionStage containing the number of new state entries
+				 *         created by this store (0 or 1)
+				 */
+				public static CompletionStage<Integer> setAsync(ActorRef actor, String submap, String key, JsonValue value) {
+					return karClient.actorSetWithSubkeyStateAsync(actor.getType(), actor.getId(), submap, key, value)
+							.thenApply(Kar::toCreated);
 				}
 
 				/**
@@ -933,19 +1630,27 @@ public class Kar {
 				public static int set(ActorRef actor, String submap, Map<String, JsonValue> updates) {
 					if (updates.isEmpty())
 						return 0;
-					JsonObjectBuilder jb = Json.createObjectBuilder();
-					for (Entry<String, JsonValue> e : updates.entrySet()) {
-						jb.add(e.getKey(), e.getValue());
-					}
-					JsonObject jup = jb.build();
-					JsonObjectBuilder pb = Json.createObjectBuilder();
-					pb.add("op", Json.createValue("update"));
-					pb.add("updates", jup);
-					JsonObject params = pb.build();
-					Response response = karClient.actorSubmapOp(actor.getType(), actor.getId(), submap, params);
+					Response response = karClient.actorSubmapOp(actor.getType(), actor.getId(), submap, updateOp(updates));
 					return toInt(response);
 				}
 
+				/**
+				 * Asynchronously store multiple values to an Actor sub-map with name `key`
+				 *
+				 * @param actor   The Actor instance.
+				 * @param submap  The name of the submap to which the updates should be
+				 *                performed
+				 * @param updates A map containing the (subkey, value) pairs to store
+				 * @return A CompletionStage containing the number of new map entries
+				 *         created by this operation
+				 */
+				public static CompletionStage<Integer> setAsync(ActorRef actor, String submap, Map<String, JsonValue> updates) {
+					if (updates.isEmpty())
+						return CompletableFuture.completedFuture(0);
+					return karClient.actorSubmapOpAsync(actor.getType(), actor.getId(), submap, updateOp(updates))
+							.thenApply(Kar::toInt);
+				}
+
 				/**
 				 * Remove one value from a submap in the Actor's state
 				 *
@@ -960,6 +1665,20 @@ public class Kar {
 					return toInt(response);
 				}
 
+				/**
+				 * Asynchronously remove one value from a submap in the Actor's state
+				 *
+				 * @param actor  The Actor instance.
+				 * @param submap The name of the submap from which to delete the key
+				 * @param key    The key of the entry to delete from the submap
+				 * @return A CompletionStage containing `1` if an entry was actually removed
+				 *         and `0` if there was no entry for `key`.
+				 */
+				public static CompletionStage<Integer> removeAsync(ActorRef actor, String submap, String key) {
+					return karClient.actorDeleteWithSubkeyStateAsync(actor.getType(), actor.getId(), submap, key, true)
+							.thenApply(Kar::toInt);
+				}
+
 				/**
 				 * Remove multiple values from one submap of an Actor's state
 				 *
@@ -971,19 +1690,26 @@ public class Kar {
 				public static int removeAll(ActorRef actor, String submap, List<String> keys) {
 					if (keys.isEmpty())
 						return 0;
-					JsonArrayBuilder jb = Json.createArrayBuilder();
-					for (String key : keys) {
-						jb.add(key);
-					}
-					JsonArray removals = jb.build();
-					JsonObjectBuilder pb = Json.createObjectBuilder();
-					pb.add("op", Json.createValue("clearSome"));
-					pb.add("removals", removals);
-					JsonObject params = pb.build();
-					Response response = karClient.actorSubmapOp(actor.getType(), actor.getId(), submap, params);
+					Response response = karClient.actorSubmapOp(actor.getType(), actor.getId(), submap, clearSomeOp(keys));
 					return toInt(response);
 				}
 
+				/**
+				 * Asynchronously remove multiple values from one submap of an Actor's state
+				 *
+				 * @param actor  The Actor instance.
+				 * @param submap The name of the submap from which to delete the keys
+				 * @param keys   The keys to delete
+				 * @return A CompletionStage containing the number of entries actually
+				 *         removed
+				 */
+				public static CompletionStage<Integer> removeAllAsync(ActorRef actor, String submap, List<String> keys) {
+					if (keys.isEmpty())
+						return CompletableFuture.completedFuture(0);
+					return karClient.actorSubmapOpAsync(actor.getType(), actor.getId(), submap, clearSomeOp(keys))
+							.thenApply(Kar::toInt);
+				}
+
 				/**
 				 * Remove all values from a submap in the Actor's state.
 				 *
@@ -992,13 +1718,22 @@ public class Kar {
 				 * @return The number of removed subkey entrys
 				 */
 				public static int removeAll(ActorRef actor, String submap) {
-					JsonObjectBuilder jb = Json.createObjectBuilder();
-					jb.add("op", Json.createValue("clear"));
-					JsonObject params = jb.build();
-					Response response = karClient.actorSubmapOp(actor.getType(), actor.getId(), submap, params);
+					Response response = karClient.actorSubmapOp(actor.getType(), actor.getId(), submap, submapOp("clear"));
 					return toInt(response);
 				}
 
+				/**
+				 * Asynchronously remove all values from a submap in the Actor's state.
+				 *
+				 * @param actor  The Actor instance
+				 * @param submap The name of the submap
+				 * @return A CompletionStage containing the number of removed subkey entries
+				 */
+				public static CompletionStage<Integer> removeAllAsync(ActorRef actor, String submap) {
+					return karClient.actorSubmapOpAsync(actor.getType(), actor.getId(), submap, submapOp("clear"))
+							.thenApply(Kar::toInt);
+				}
+
 				/**
 				 * Get the keys of the given submap
 				 *
@@ -1007,16 +1742,76 @@ public class Kar {
 				 * @return An array containing the currently defined subkeys
 				 */
 				public static String[] keys(ActorRef actor, String submap) {
-					JsonObjectBuilder jb = Json.createObjectBuilder();
-					jb.add("op", Json.createValue("keys"));
-					JsonObject params = jb.build();
-					Response response = karClient.actorSubmapOp(actor.getType(), actor.getId(), submap, params);
-					Object[] jstrings = ((JsonValue) toValue(response)).asJsonArray().toArray();
-					String[] ans = new String[jstrings.length];
-					for (int i = 0; i < jstrings.length; i++) {
-						ans[i] = ((JsonValue) jstrings[i]).toString();
-					}
-					return ans;
+					Response response = karClient.actorSubmapOp(actor.getType(), actor.getId(), submap, submapOp("keys"));
+					return toKeys(response);
+				}
+
+				/**
+				 * Asynchronously get the keys of the given submap
+				 *
+				 * @param actor  The Actor instance
+				 * @param submap The name of the submap
+				 * @return A CompletionStage containing an array of the currently defined
+				 *         subkeys
+				 */
+				public static CompletionStage<String[]> keysAsync(ActorRef actor, String submap) {
+					return karClient.actorSubmapOpAsync(actor.getType(), actor.getId(), submap, submapOp("keys"))
+							.thenApply(Kar::toKeys);
+				}
+
+				/**
+				 * Get a page of the keys of the given submap
+				 *
+				 * @param actor  The Actor instance
+				 * @param submap The name of the submap
+				 * @param cursor The cursor of the previous page, or null for the first page
+				 * @param limit  The maximum number of keys in the page
+				 * @return The page of keys and the cursor of the next page
+				 */
+				public static SubmapPage keys(ActorRef actor, String submap, String cursor, int limit) {
+					return SubmapScanner.keys(karClient, actor, submap, cursor, limit);
+				}
+
+				/**
+				 * Get the page of the keys of the given submap that follows a page. Unlike
+				 * resuming from the cursor of the page, this reuses the keys read for the
+				 * previous page instead of reading them again.
+				 *
+				 * @param actor    The Actor instance
+				 * @param submap   The name of the submap
+				 * @param previous The previous page of this submap
+				 * @param limit    The maximum number of keys in the page
+				 * @return The page of keys and the cursor of the next page
+				 */
+				public static SubmapPage nextKeys(ActorRef actor, String submap, SubmapPage previous, int limit) {
+					return SubmapScanner.nextKeys(karClient, actor, submap, previous, limit);
+				}
+
+				/**
+				 * Iterate over the key/value pairs of the given submap, fetching them a page
+				 * at a time as the iteration proceeds.
+				 *
+				 * @param actor    The Actor instance
+				 * @param submap   The name of the submap
+				 * @param pageSize The number of pairs to fetch per request
+				 * @return An iterator over the submap's entries
+				 */
+				public static Iterator<Entry<String, JsonValue>> iterator(ActorRef actor, String submap, int pageSize) {
+					return SubmapScanner.entries(karClient, actor, submap, pageSize);
+				}
+
+				/**
+				 * Stream the key/value pairs of the given submap, fetching them a page at a
+				 * time as the stream is consumed.
+				 *
+				 * @param actor    The Actor instance
+				 * @param submap   The name of the submap
+				 * @param pageSize The number of pairs to fetch per request
+				 * @return A sequential stream of the submap's entries
+				 */
+				public static Stream<Entry<String, JsonValue>> stream(ActorRef actor, String submap, int pageSize) {
+					return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator(actor, submap, pageSize),
+							Spliterator.ORDERED | Spliterator.DISTINCT | Spliterator.NONNULL), false);
 				}
 
 				/**
@@ -1027,12 +1822,22 @@ public class Kar {
 				 * @return The number of currently define keys in the submap
 				 */
 				public static int size(ActorRef actor, String submap) {
-					JsonObjectBuilder jb = Json.createObjectBuilder();
-					jb.add("op", Json.createValue("size"));
-					JsonObject params = jb.build();
-					Response response = karClient.actorSubmapOp(actor.getType(), actor.getId(), submap, params);
+					Response response = karClient.actorSubmapOp(actor.getType(), actor.getId(), submap, submapOp("size"));
 					return toInt(response);
 				}
+
+				/**
+				 * Asynchronously get the number of keys in the given submap
+				 *
+				 * @param actor  The Actor instance
+				 * @param submap The name of the submap
+				 * @return A CompletionStage containing the number of currently defined keys
+				 *         in the submap
+				 */
+				public static CompletionStage<Integer> sizeAsync(ActorRef actor, String submap) {
+					return karClient.actorSubmapOpAsync(actor.getType(), actor.getId(), submap, submapOp("size"))
+							.thenApply(Kar::toInt);
+				}
 			}
 		}
 	}
@@ -1042,6 +1847,9 @@ public class Kar {
 	 */
 	public static class Events {
 
+		// shared publishers indexed by topic
+		private static final ConcurrentHashMap<String, EventPublisher> publishers = new ConcurrentHashMap<String, EventPublisher>();
+
 		/**
 		 * Cancel all subscriptions for an Actor instance.
 		 *
@@ -1053,6 +1861,17 @@ public class Kar {
 			return toInt(response);
 		}
 
+		/**
+		 * Asynchronously cancel all subscriptions for an Actor instance.
+		 *
+		 * @param actor The Actor instance.
+		 * @return A CompletionStage containing the number of subscriptions that were
+		 *         cancelled.
+		 */
+		public static CompletionStage<Integer> cancelAllSubscriptionsAsync(ActorRef actor) {
+			return karClient.actorCancelAllSubscriptionsAsync(actor.getType(), actor.getId()).thenApply(Kar::toInt);
+		}
+
 		/**
 		 * Cancel a specific subscription for an Actor instance.
 		 *
@@ -1065,6 +1884,19 @@ public class Kar {
 			return toInt(response);
 		}
 
+		/**
+		 * Asynchronously cancel a specific subscription for an Actor instance.
+		 *
+		 * @param actor          The Actor instance.
+		 * @param subscriptionId The id of a specific subscription to cancel
+		 * @return A CompletionStage containing the number of subscriptions that were
+		 *         cancelled.
+		 */
+		public static CompletionStage<Integer> cancelSubscriptionAsync(ActorRef actor, String subscriptionId) {
+			return karClient.actorCancelSubscriptionAsync(actor.getType(), actor.getId(), subscriptionId)
+					.thenApply(Kar::toInt);
+		}
+
 		/**
 		 * Get all subscriptions for an Actor instance.
 		 *
@@ -1076,6 +1908,17 @@ public class Kar {
 			return toSubscriptionArray(response);
 		}
 
+		/**
+		 * Asynchronously get all subscriptions for an Actor instance.
+		 *
+		 * @param actor The Actor instance.
+		 * @return A CompletionStage containing an array of subscriptions
+		 */
+		public static CompletionStage<Subscription[]> getSubscriptionsAsync(ActorRef actor) {
+			return karClient.actorGetAllSubscriptionsAsync(actor.getType(), actor.getId())
+					.thenApply(Kar::toSubscriptionArray);
+		}
+
 		/**
 		 * Get a specific subscription for an Actor instance.
 		 *
@@ -1088,6 +1931,18 @@ public class Kar {
 			return toSubscriptionArray(response);
 		}
 
+		/**
+		 * Asynchronously get a specific subscription for an Actor instance.
+		 *
+		 * @param actor          The Actor instance.
+		 * @param subscriptionId The id of a specific subscription to get
+		 * @return A CompletionStage containing an array of zero or one subscription
+		 */
+		public static CompletionStage<Subscription[]> getSubscriptionAsync(ActorRef actor, String subscriptionId) {
+			return karClient.actorGetSubscriptionAsync(actor.getType(), actor.getId(), subscriptionId)
+					.thenApply(Kar::toSubscriptionArray);
+		}
+
 		/**
 		 * Subscribe an Actor instance method to a topic.
 		 *
@@ -1099,6 +1954,18 @@ public class Kar {
 			subscribe(actor, path, topic, topic);
 		}
 
+		/**
+		 * Asynchronously subscribe an Actor instance method to a topic.
+		 *
+		 * @param actor The Actor instance to subscribe
+		 * @param path  The actor method to invoke on each event received on the topic
+		 * @param topic The topic to which to subscribe
+		 * @return A CompletionStage that completes when the subscription is in place.
+		 */
+		public static CompletionStage<Void> subscribeAsync(ActorRef actor, String path, String topic) {
+			return subscribeAsync(actor, path, topic, topic);
+		}
+
 		/**
 		 * Subscribe an Actor instance method to a topic.
 		 *
@@ -1109,11 +1976,30 @@ public class Kar {
 		 * @param subscriptionId The subscriptionId to use for this subscription
 		 */
 		public static void subscribe(ActorRef actor, String path, String topic, String subscriptionId) {
+			karClient.actorSubscribe(actor.getType(), actor.getId(), subscriptionId, subscriptionParams(path, topic));
+		}
+
+		/**
+		 * Asynchronously subscribe an Actor instance method to a topic.
+		 *
+		 * @param actor          The Actor instance to subscribe
+		 * @param path           The actor method to invoke on each event received on
+		 *                       the topic
+		 * @param topic          The topic to which to subscribe
+		 * @param subscriptionId The subscriptionId to use for this subscription
+		 * @return A CompletionStage that completes when the subscription is in place.
+		 */
+		public static CompletionStage<Void> subscribeAsync(ActorRef actor, String path, String topic,
+				String subscriptionId) {
+			return karClient.actorSubscribeAsync(actor.getType(), actor.getId(), subscriptionId,
+					subscriptionParams(path, topic)).thenApply(response -> null);
+		}
+
+		private static JsonObject subscriptionParams(String path, String topic) {
 			JsonObjectBuilder builder = Json.createObjectBuilder();
 			builder.add("path", "/" + path);
 			builder.add("topic", topic);
-			JsonObject data = builder.build();
-			karClient.actorSubscribe(actor.getType(), actor.getId(), subscriptionId, data);
+			return builder.build();
 		}
 
 		/**
@@ -1125,6 +2011,17 @@ public class Kar {
 			karClient.eventCreateTopic(topic, JsonValue.EMPTY_JSON_OBJECT);
 		}
 
+		/**
+		 * Asynchronously create a topic using the default Kafka configuration
+		 * options.
+		 *
+		 * @param topic The name of the topic to create
+		 * @return A CompletionStage that completes when the topic has been created.
+		 */
+		public static CompletionStage<Void> createTopicAsync(String topic) {
+			return karClient.eventCreateTopicAsync(topic, JsonValue.EMPTY_JSON_OBJECT).thenApply(response -> null);
+		}
+
 		/**
 		 * Delete a topic.
 		 *
@@ -1134,6 +2031,16 @@ public class Kar {
 			karClient.eventDeleteTopic(topic);
 		}
 
+		/**
+		 * Asynchronously delete a topic.
+		 *
+		 * @param topic the name of the topic to delete
+		 * @return A CompletionStage that completes when the topic has been deleted.
+		 */
+		public static CompletionStage<Void> deleteTopicAsync(String topic) {
+			return karClient.eventDeleteTopicAsync(topic).thenApply(response -> null);
+		}
+
 		/**
 		 * Publish an event on a topic.
 		 *
@@ -1143,6 +2050,28 @@ public class Kar {
 		public static void publish(String topic, JsonValue event) {
 			karClient.eventPublish(topic, event);
 		}
+
+		/**
+		 * Get the shared EventPublisher for a topic. The shared publisher should not
+		 * be closed.
+		 *
+		 * @param topic The topic on which to publish
+		 * @return The EventPublisher for `topic`
+		 */
+		public static EventPublisher publisher(String topic) {
+			return publishers.computeIfAbsent(topic, t -> new EventPublisher(t, () -> karClient));
+		}
+
+		/**
+		 * Asynchronously publish an event on a topic.
+		 *
+		 * @param topic The topic on which to publish
+		 * @param event The event to publish
+		 * @return A CompletionStage that completes when the event has been published.
+		 */
+		public static CompletionStage<Void> publishAsync(String topic, JsonValue event) {
+			return karClient.eventPublishAsync(topic, event).thenApply(response -> null);
+		}
 	}
 
 	/**
@@ -1165,5 +2094,36 @@ public class Kar {
 			Response response = karClient.systemInformation(component);
 			return toValue(response);
 		}
+
+		/**
+		 * Get the budget that bounds the retries of requests to the sidecar, with
+		 * counters of attempts, retries and retries refused by the budget.
+		 *
+		 * @return The retry budget
+		 */
+		public static RetryBudget retryBudget() {
+			return retryBudget;
+		}
+
+		/**
+		 * Get the circuit breaker that fails requests fast while the sidecar is
+		 * unreachable.
+		 *
+		 * @return The circuit breaker
+		 */
+		public static CircuitBreaker circuitBreaker() {
+			return circuitBreaker;
+		}
+
+		/**
+		 * Get the limiter that adapts the number of requests in flight to the
+		 * sidecar to its latency, with its current limit and queue depth. Requests
+		 * go through it only when KarConfig.LIMIT_MAX is positive.
+		 *
+		 * @return The concurrency limiter
+		 */
+		public static ConcurrencyLimiter concurrencyLimiter() {
+			return concurrencyLimiter;
+		}
 	}
 }
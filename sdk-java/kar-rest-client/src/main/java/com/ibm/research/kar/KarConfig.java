@@ -37,10 +37,109 @@ public class KarConfig {
 	// elide implementation details from actor method stack traces
 	public static boolean SHORTEN_ACTOR_STACKTRACES = true;
 
+	// comma-delimited list of type=limit pairs bounding the resident instances of
+	// each actor type; a bare limit applies to all unlisted types (0 means unbounded)
+	public static String ACTOR_CACHE_MAX_PER_TYPE_STR;
+
+	// maximum number of resident actor instances across all types (0 means unbounded)
+	public static int ACTOR_CACHE_MAX_TOTAL = 0;
+
+	// passivate actor instances that have been idle this long (0 disables idle passivation)
+	public static long ACTOR_IDLE_TIMEOUT_MILLIS = 0;
+
+	// number of threads running @Deactivate methods of passivated actor instances
+	public static int ACTOR_PASSIVATION_THREADS = 2;
+
+	// run actor method invocations on virtual threads (requires Java 21)
+	public static boolean ACTOR_VIRTUAL_THREADS = false;
+
+	// include the stack trace in the error response for one in this many exceptions of each type
+	public static int ACTOR_ERROR_TRACE_SAMPLE = 1;
+
+	// maximum number of stack traces per second included in error responses for each exception type (0 means unbounded)
+	public static int ACTOR_ERROR_TRACES_PER_SECOND = 10;
+
+	/********
+	 * settable variables in the environment of the application process
+	 */
+
+	// use the MicroProfile REST client to reach the sidecar
+	public static final String TRANSPORT_MICROPROFILE = "microprofile";
+
+	// use a pool of java.net.http HTTP/2 cleartext clients to reach the sidecar
+	public static final String TRANSPORT_HTTP2 = "http2";
+
+	// use HTTP/1.1 over the Unix domain socket KAR_JAVA_TRANSPORT_SOCKET to reach the sidecar
+	public static final String TRANSPORT_UNIX = "unix";
+
+	// transport used by the Kar client to reach the sidecar (KAR_JAVA_TRANSPORT)
+	public static String TRANSPORT = getenv("KAR_JAVA_TRANSPORT", TRANSPORT_MICROPROFILE);
+
+	// number of connections to the sidecar used by the http2 transport, or idle connections kept by the unix transport (KAR_JAVA_TRANSPORT_POOL_SIZE)
+	public static int TRANSPORT_POOL_SIZE = getenv("KAR_JAVA_TRANSPORT_POOL_SIZE", 4);
+
+	// maximum number of asynchronous requests in flight on the unix transport, each holding a thread (KAR_JAVA_TRANSPORT_MAX_REQUESTS)
+	public static int TRANSPORT_MAX_REQUESTS = getenv("KAR_JAVA_TRANSPORT_MAX_REQUESTS", 256);
+
+	// path of the Unix domain socket of the sidecar used by the unix transport (KAR_JAVA_TRANSPORT_SOCKET)
+	public static String TRANSPORT_SOCKET_PATH = getenv("KAR_JAVA_TRANSPORT_SOCKET", null);
+
+	// maximum number of tellAsync requests in flight before tellAsync blocks (KAR_JAVA_TELL_WINDOW)
+	public static int TELL_WINDOW = getenv("KAR_JAVA_TELL_WINDOW", 128);
+
+	// retries of requests to the sidecar allowed as a percentage of requests (KAR_JAVA_RETRY_BUDGET_PERCENT)
+	public static int RETRY_BUDGET_PERCENT = getenv("KAR_JAVA_RETRY_BUDGET_PERCENT", 10);
+
+	// retries of requests to the sidecar allowed per second regardless of traffic (KAR_JAVA_RETRY_MIN_PER_SECOND)
+	public static int RETRY_MIN_PER_SECOND = getenv("KAR_JAVA_RETRY_MIN_PER_SECOND", 10);
+
+	// backoff before the first retry of a request (KAR_JAVA_RETRY_BACKOFF_MILLIS)
+	public static int RETRY_BACKOFF_MILLIS = getenv("KAR_JAVA_RETRY_BACKOFF_MILLIS", 25);
+
+	// maximum backoff before a retry of a request (KAR_JAVA_RETRY_MAX_BACKOFF_MILLIS)
+	public static int RETRY_MAX_BACKOFF_MILLIS = getenv("KAR_JAVA_RETRY_MAX_BACKOFF_MILLIS", 2000);
+
+	// consecutive failed or slow requests that open the circuit breaker to the sidecar (KAR_JAVA_BREAKER_FAILURES, 0 disables)
+	public static int BREAKER_FAILURES = getenv("KAR_JAVA_BREAKER_FAILURES", 5);
+
+	// requests the sidecar answers itself that take longer than this count as failures (KAR_JAVA_BREAKER_SLOW_CALL_MILLIS, 0 disables)
+	public static int BREAKER_SLOW_CALL_MILLIS = getenv("KAR_JAVA_BREAKER_SLOW_CALL_MILLIS", 5000);
+
+	// time the circuit breaker stays open before probing the sidecar again (KAR_JAVA_BREAKER_OPEN_MILLIS)
+	public static int BREAKER_OPEN_MILLIS = getenv("KAR_JAVA_BREAKER_OPEN_MILLIS", 1000);
+
+	// initial limit on requests in flight to the sidecar, adapted to its latency (KAR_JAVA_LIMIT_INITIAL)
+	public static int LIMIT_INITIAL = getenv("KAR_JAVA_LIMIT_INITIAL", 64);
+
+	// lowest limit on requests in flight to the sidecar (KAR_JAVA_LIMIT_MIN)
+	public static int LIMIT_MIN = getenv("KAR_JAVA_LIMIT_MIN", 8);
+
+	// highest limit on requests in flight to the sidecar (KAR_JAVA_LIMIT_MAX); the limit is opt-in and 0, the default, disables it
+	public static int LIMIT_MAX = getenv("KAR_JAVA_LIMIT_MAX", 0);
+
+	// requests that may wait for the limit before further requests are shed (KAR_JAVA_LIMIT_QUEUE)
+	public static int LIMIT_QUEUE = getenv("KAR_JAVA_LIMIT_QUEUE", 1024);
+
+	// time a request may wait for the limit before it is shed (KAR_JAVA_LIMIT_QUEUE_TIMEOUT_MILLIS)
+	public static int LIMIT_QUEUE_TIMEOUT_MILLIS = getenv("KAR_JAVA_LIMIT_QUEUE_TIMEOUT_MILLIS", 5000);
+
 	/********
 	 * TBD settable variables microprofile-config.properties
 	 */
 
-	// maximum retries for REST Calls (only read for CDI)
+	// maximum retries of a single REST call
 	public static final int MAX_RETRY = 10;
+
+	private static String getenv(String name, String defaultValue) {
+		String value = System.getenv(name);
+		return value != null && !value.trim().isEmpty() ? value.trim() : defaultValue;
+	}
+
+	private static int getenv(String name, int defaultValue) {
+		try {
+			return Integer.parseInt(getenv(name, Integer.toString(defaultValue)));
+		} catch (NumberFormatException e) {
+			return defaultValue;
+		}
+	}
 }
@@ -25,6 +25,7 @@ import javax.ws.rs.Consumes;
 import javax.ws.rs.DELETE;
 import javax.ws.rs.GET;
 import javax.ws.rs.HEAD;
+import javax.ws.rs.HeaderParam;
 import javax.ws.rs.OPTIONS;
 import javax.ws.rs.PATCH;
 import javax.ws.rs.POST;
@@ -36,7 +37,6 @@ import javax.ws.rs.Produces;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 
-import org.eclipse.microprofile.faulttolerance.Retry;
 import org.eclipse.microprofile.faulttolerance.Timeout;
 import org.eclipse.microprofile.rest.client.annotation.ClientHeaderParam;
 import org.eclipse.microprofile.rest.client.annotation.RegisterProvider;
@@ -51,6 +51,9 @@ public interface KarRest extends AutoCloseable {
 	public final static String KAR_ACTOR_JSON = "application/kar+json";
 	public final static MediaType KAR_ACTOR_JSON_TYPE = new MediaType("application", "kar+json");
 
+	// milliseconds left before the caller of a request gives up on it
+	public final static String KAR_TIMEOUT_HEADER = "Kar-Timeout";
+
 	/*
 	 * Services
 	 */
@@ -59,106 +62,107 @@ public interface KarRest extends AutoCloseable {
 	@DELETE
 	@Path("service/{service}/call/{path}")
 	@ClientHeaderParam(name = "Pragma", value = "async")
-	@Retry(maxRetries = KarConfig.MAX_RETRY)
 	@Produces(MediaType.TEXT_PLAIN)
 	public Response tellDelete(@PathParam("service") String service, @PathParam("path") String path);
 
 	@PATCH
 	@Path("service/{service}/call/{path}")
 	@ClientHeaderParam(name = "Pragma", value = "async")
-	@Retry(maxRetries = KarConfig.MAX_RETRY)
 	@Produces(MediaType.TEXT_PLAIN)
 	public Response tellPatch(@PathParam("service") String service, @PathParam("path") String path, JsonValue params);
 
 	@POST
 	@Path("service/{service}/call/{path}")
 	@ClientHeaderParam(name = "Pragma", value = "async")
-	@Retry(maxRetries = KarConfig.MAX_RETRY)
 	@Produces(MediaType.TEXT_PLAIN)
 	public Response tellPost(@PathParam("service") String service, @PathParam("path") String path, JsonValue params);
 
 	@PUT
 	@Path("service/{service}/call/{path}")
 	@ClientHeaderParam(name = "Pragma", value = "async")
-	@Retry(maxRetries = KarConfig.MAX_RETRY)
 	@Produces(MediaType.TEXT_PLAIN)
 	public Response tellPut(@PathParam("service") String service, @PathParam("path") String path, JsonValue params);
 
+	@POST
+	@Path("service/{service}/call/{path}")
+	@ClientHeaderParam(name = "Pragma", value = "async")
+	@Produces(MediaType.TEXT_PLAIN)
+	public CompletionStage<Response> tellPostAsync(@PathParam("service") String service, @PathParam("path") String path,
+			JsonValue params);
+
 	// synchronous service invocation, returns invocation result
 	@DELETE
 	@Path("service/{service}/call/{path}")
-	@Retry(maxRetries = KarConfig.MAX_RETRY)
 	public Response callDelete(@PathParam("service") String service, @PathParam("path") String path);
 
 	@GET
 	@Path("service/{service}/call/{path}")
-	@Retry(maxRetries = KarConfig.MAX_RETRY)
 	public Response callGet(@PathParam("service") String service, @PathParam("path") String path);
 
 	@HEAD
 	@Path("service/{service}/call/{path}")
-	@Retry(maxRetries = KarConfig.MAX_RETRY)
 	public Response callHead(@PathParam("service") String service, @PathParam("path") String path);
 
 	@OPTIONS
 	@Path("service/{service}/call/{path}")
-	@Retry(maxRetries = KarConfig.MAX_RETRY)
 	public Response callOptions(@PathParam("service") String service, @PathParam("path") String path, JsonValue params);
 
 	@PATCH
 	@Path("service/{service}/call/{path}")
-	@Retry(maxRetries = KarConfig.MAX_RETRY)
 	public Response callPatch(@PathParam("service") String service, @PathParam("path") String path, JsonValue params);
 
 	@POST
 	@Path("service/{service}/call/{path}")
-	@Retry(maxRetries = KarConfig.MAX_RETRY)
 	public Response callPost(@PathParam("service") String service, @PathParam("path") String path, JsonValue params);
 
+	// synchronous service invocation that the caller abandons after timeoutMillis
+	@POST
+	@Path("service/{service}/call/{path}")
+	public Response callPost(@PathParam("service") String service, @PathParam("path") String path,
+			@HeaderParam(KAR_TIMEOUT_HEADER) Long timeoutMillis, JsonValue params);
+
 	@PUT
 	@Path("service/{service}/call/{path}")
-	@Retry(maxRetries = KarConfig.MAX_RETRY)
 	public Response callPut(@PathParam("service") String service, @PathParam("path") String path, JsonValue params);
 
 	// asynchronous service invocation, returns CompletionStage that will contain
 	// the eventual invocation result
 	@DELETE
 	@Path("service/{service}/call/{path}")
-	@Retry(maxRetries = KarConfig.MAX_RETRY)
 	public CompletionStage<Response> callAsyncDelete(@PathParam("service") String service,
 			@PathParam("path") String path);
 
 	@GET
 	@Path("service/{service}/call/{path}")
-	@Retry(maxRetries = KarConfig.MAX_RETRY)
 	public CompletionStage<Response> callAsyncGet(@PathParam("service") String service, @PathParam("path") String path);
 
 	@HEAD
 	@Path("service/{service}/call/{path}")
-	@Retry(maxRetries = KarConfig.MAX_RETRY)
 	public CompletionStage<Response> callAsyncHead(@PathParam("service") String service, @PathParam("path") String path);
 
 	@OPTIONS
 	@Path("service/{service}/call/{path}")
-	@Retry(maxRetries = KarConfig.MAX_RETRY)
 	public CompletionStage<Response> callAsyncOptions(@PathParam("service") String service,
 			@PathParam("path") String path, JsonValue params);
 
 	@PATCH
 	@Path("service/{service}/call/{path}")
-	@Retry(maxRetries = KarConfig.MAX_RETRY)
 	public CompletionStage<Response> callAsyncPatch(@PathParam("service") String service, @PathParam("path") String path,
 			JsonValue params);
 
 	@POST
 	@Path("service/{service}/call/{path}")
-	@Retry(maxRetries = KarConfig.MAX_RETRY)
 	public CompletionStage<Response> callAsyncPost(@PathParam("service") String service, @PathParam("path") String path,
 			JsonValue params);
 
+	// asynchronous service invocation that the caller abandons after timeoutMillis
+	@POST
+	@Path("service/{service}/call/{path}")
+	public CompletionStage<Response> callAsyncPost(@PathParam("service") String service, @PathParam("path") String path,
+			@HeaderParam(KAR_TIMEOUT_HEADER) Long timeoutMillis, JsonValue params);
+
 	@PUT
 	@Path("service/{service}/call/{path}")
-	@Retry(maxRetries = KarConfig.MAX_RETRY)
 	public CompletionStage<Response> callAsyncPut(@PathParam("service") String service, @PathParam("path") String path,
 			JsonValue params);
 
@@ -170,148 +174,245 @@ public interface KarRest extends AutoCloseable {
 	@POST
 	@Path("actor/{type}/{id}/call/{path}")
 	@ClientHeaderParam(name = "Pragma", value = "async")
-	@Retry(maxRetries = KarConfig.MAX_RETRY)
 	@Consumes(KAR_ACTOR_JSON)
 	@Produces(MediaType.TEXT_PLAIN)
 	public Response actorTell(@PathParam("type") String type, @PathParam("id") String id, @PathParam("path") String path,
 			JsonArray args);
 
+	@POST
+	@Path("actor/{type}/{id}/call/{path}")
+	@ClientHeaderParam(name = "Pragma", value = "async")
+	@Consumes(KAR_ACTOR_JSON)
+	@Produces(MediaType.TEXT_PLAIN)
+	public CompletionStage<Response> actorTellAsync(@PathParam("type") String type, @PathParam("id") String id,
+			@PathParam("path") String path, JsonArray args);
+
 	// synchronous actor invocation: returns invocation result
 	@POST
 	@Path("actor/{type}/{id}/call/{path}")
-	@Retry(maxRetries = KarConfig.MAX_RETRY)
 	@Consumes(KAR_ACTOR_JSON)
 	@Produces(KAR_ACTOR_JSON)
 	public Response actorCall(@PathParam("type") String type, @PathParam("id") String id, @PathParam("path") String path,
 			@QueryParam("session") String session, JsonArray args);
 
+	// synchronous actor invocation that the caller abandons after timeoutMillis
+	@POST
+	@Path("actor/{type}/{id}/call/{path}")
+	@Consumes(KAR_ACTOR_JSON)
+	@Produces(KAR_ACTOR_JSON)
+	public Response actorCall(@PathParam("type") String type, @PathParam("id") String id, @PathParam("path") String path,
+			@QueryParam("session") String session, @HeaderParam(KAR_TIMEOUT_HEADER) Long timeoutMillis, JsonArray args);
+
 	// synchronous actor invocation: returns invocation result
 	@POST
 	@Path("actor/{type}/{id}/call/{path}")
-	@Retry(maxRetries = KarConfig.MAX_RETRY)
 	@Consumes(KAR_ACTOR_JSON)
 	@Produces(KAR_ACTOR_JSON)
 	public CompletionStage<Response> actorCallAsync(@PathParam("type") String type, @PathParam("id") String id,
 			@PathParam("path") String path, @QueryParam("session") String session, JsonArray args);
 
+	// asynchronous actor invocation that the caller abandons after timeoutMillis
+	@POST
+	@Path("actor/{type}/{id}/call/{path}")
+	@Consumes(KAR_ACTOR_JSON)
+	@Produces(KAR_ACTOR_JSON)
+	public CompletionStage<Response> actorCallAsync(@PathParam("type") String type, @PathParam("id") String id,
+			@PathParam("path") String path, @QueryParam("session") String session,
+			@HeaderParam(KAR_TIMEOUT_HEADER) Long timeoutMillis, JsonArray args);
+
 	//
 	// Actor Reminder operations
 	//
 
 	@DELETE
 	@Path("actor/{type}/{id}/reminders")
-	@Retry(maxRetries = KarConfig.MAX_RETRY)
 	@Produces(MediaType.TEXT_PLAIN)
 	public Response actorCancelReminders(@PathParam("type") String type, @PathParam("id") String id);
 
+	@DELETE
+	@Path("actor/{type}/{id}/reminders")
+	@Produces(MediaType.TEXT_PLAIN)
+	public CompletionStage<Response> actorCancelRemindersAsync(@PathParam("type") String type, @PathParam("id") String id);
+
 	@DELETE
 	@Path("actor/{type}/{id}/reminders/{reminderId}")
-	@Retry(maxRetries = KarConfig.MAX_RETRY)
 	@Produces(MediaType.TEXT_PLAIN)
 	public Response actorCancelReminder(@PathParam("type") String type, @PathParam("id") String id,
 			@PathParam("reminderId") String reminderId, @QueryParam("nilOnAbsent") boolean nilOnAbsent);
 
+	@DELETE
+	@Path("actor/{type}/{id}/reminders/{reminderId}")
+	@Produces(MediaType.TEXT_PLAIN)
+	public CompletionStage<Response> actorCancelReminderAsync(@PathParam("type") String type, @PathParam("id") String id,
+			@PathParam("reminderId") String reminderId, @QueryParam("nilOnAbsent") boolean nilOnAbsent);
+
 	@GET
 	@Path("actor/{type}/{id}/reminders")
-	@Retry(maxRetries = KarConfig.MAX_RETRY)
 	public Response actorGetReminders(@PathParam("type") String type, @PathParam("id") String id);
 
+	@GET
+	@Path("actor/{type}/{id}/reminders")
+	public CompletionStage<Response> actorGetRemindersAsync(@PathParam("type") String type, @PathParam("id") String id);
+
 	@GET
 	@Path("actor/{type}/{id}/reminders/{reminderId}")
-	@Retry(maxRetries = KarConfig.MAX_RETRY)
 	public Response actorGetReminder(@PathParam("type") String type, @PathParam("id") String id,
 			@PathParam("reminderId") String reminderId, @QueryParam("nilOnAbsent") boolean nilOnAbsent);
 
+	@GET
+	@Path("actor/{type}/{id}/reminders/{reminderId}")
+	public CompletionStage<Response> actorGetReminderAsync(@PathParam("type") String type, @PathParam("id") String id,
+			@PathParam("reminderId") String reminderId, @QueryParam("nilOnAbsent") boolean nilOnAbsent);
+
 	@PUT
 	@Path("actor/{type}/{id}/reminders/{reminderId}")
-	@Retry(maxRetries = KarConfig.MAX_RETRY)
 	@Produces(MediaType.TEXT_PLAIN)
 	public Response actorScheduleReminder(@PathParam("type") String type, @PathParam("id") String id,
 			@PathParam("reminderId") String reminderId, JsonObject params);
 
+	@PUT
+	@Path("actor/{type}/{id}/reminders/{reminderId}")
+	@Produces(MediaType.TEXT_PLAIN)
+	public CompletionStage<Response> actorScheduleReminderAsync(@PathParam("type") String type, @PathParam("id") String id,
+			@PathParam("reminderId") String reminderId, JsonObject params);
+
 	//
 	// Actor state operations
 	//
 
 	@GET
 	@Path("actor/{type}/{id}/state/{key}/{subkey}")
-	@Retry(maxRetries = KarConfig.MAX_RETRY)
 	public Response actorGetWithSubkeyState(@PathParam("type") String type, @PathParam("id") String id,
 			@PathParam("key") String key, @PathParam("subkey") String subkey, @QueryParam("nilOnAbsent") boolean nilOnAbsent);
 
+	@GET
+	@Path("actor/{type}/{id}/state/{key}/{subkey}")
+	public CompletionStage<Response> actorGetWithSubkeyStateAsync(@PathParam("type") String type,
+			@PathParam("id") String id, @PathParam("key") String key, @PathParam("subkey") String subkey,
+			@QueryParam("nilOnAbsent") boolean nilOnAbsent);
+
 	@HEAD
 	@Path("actor/{type}/{id}/state/{key}/{subkey}")
-	@Retry(maxRetries = KarConfig.MAX_RETRY)
 	public Response actorHeadWithSubkeyState(@PathParam("type") String type, @PathParam("id") String id,
 			@PathParam("key") String key, @PathParam("subkey") String subkey);
 
+	@HEAD
+	@Path("actor/{type}/{id}/state/{key}/{subkey}")
+	public CompletionStage<Response> actorHeadWithSubkeyStateAsync(@PathParam("type") String type,
+			@PathParam("id") String id, @PathParam("key") String key, @PathParam("subkey") String subkey);
+
 	@PUT
 	@Path("actor/{type}/{id}/state/{key}/{subkey}")
-	@Retry(maxRetries = KarConfig.MAX_RETRY)
 	@Produces(MediaType.TEXT_PLAIN)
 	public Response actorSetWithSubkeyState(@PathParam("type") String type, @PathParam("id") String id,
 			@PathParam("key") String key, @PathParam("subkey") String subkey, JsonValue params);
 
+	@PUT
+	@Path("actor/{type}/{id}/state/{key}/{subkey}")
+	@Produces(MediaType.TEXT_PLAIN)
+	public CompletionStage<Response> actorSetWithSubkeyStateAsync(@PathParam("type") String type,
+			@PathParam("id") String id, @PathParam("key") String key, @PathParam("subkey") String subkey, JsonValue params);
+
 	@DELETE
 	@Path("actor/{type}/{id}/state/{key}/{subkey}")
-	@Retry(maxRetries = KarConfig.MAX_RETRY)
 	@Produces(MediaType.TEXT_PLAIN)
 	public Response actorDeleteWithSubkeyState(@PathParam("type") String type, @PathParam("id") String id,
 			@PathParam("key") String key, @PathParam("subkey") String subkey, @QueryParam("nilOnAbsent") boolean nilOnAbsent);
 
+	@DELETE
+	@Path("actor/{type}/{id}/state/{key}/{subkey}")
+	@Produces(MediaType.TEXT_PLAIN)
+	public CompletionStage<Response> actorDeleteWithSubkeyStateAsync(@PathParam("type") String type,
+			@PathParam("id") String id, @PathParam("key") String key, @PathParam("subkey") String subkey,
+			@QueryParam("nilOnAbsent") boolean nilOnAbsent);
+
 	@GET
 	@Path("actor/{type}/{id}/state/{key}")
-	@Retry(maxRetries = KarConfig.MAX_RETRY)
 	public Response actorGetState(@PathParam("type") String type, @PathParam("id") String id,
 			@PathParam("key") String key, @QueryParam("nilOnAbsent") boolean nilOnAbsent);
 
+	@GET
+	@Path("actor/{type}/{id}/state/{key}")
+	public CompletionStage<Response> actorGetStateAsync(@PathParam("type") String type, @PathParam("id") String id,
+			@PathParam("key") String key, @QueryParam("nilOnAbsent") boolean nilOnAbsent);
+
 	@HEAD
 	@Path("actor/{type}/{id}/state/{key}")
-	@Retry(maxRetries = KarConfig.MAX_RETRY)
 	public Response actorHeadState(@PathParam("type") String type, @PathParam("id") String id,
 			@PathParam("key") String key);
 
+	@HEAD
+	@Path("actor/{type}/{id}/state/{key}")
+	public CompletionStage<Response> actorHeadStateAsync(@PathParam("type") String type, @PathParam("id") String id,
+			@PathParam("key") String key);
+
 	@PUT
 	@Path("actor/{type}/{id}/state/{key}")
-	@Retry(maxRetries = KarConfig.MAX_RETRY)
 	@Produces(MediaType.TEXT_PLAIN)
 	public Response actorSetState(@PathParam("type") String type, @PathParam("id") String id,
 			@PathParam("key") String key, JsonValue params);
 
+	@PUT
+	@Path("actor/{type}/{id}/state/{key}")
+	@Produces(MediaType.TEXT_PLAIN)
+	public CompletionStage<Response> actorSetStateAsync(@PathParam("type") String type, @PathParam("id") String id,
+			@PathParam("key") String key, JsonValue params);
+
 	@POST
 	@Path("actor/{type}/{id}/state/{key}")
-	@Retry(maxRetries = KarConfig.MAX_RETRY)
 	@Produces(MediaType.APPLICATION_JSON)
 	public Response actorSubmapOp(@PathParam("type") String type, @PathParam("id") String id, @PathParam("key") String key,
 			JsonValue params);
 
+	@POST
+	@Path("actor/{type}/{id}/state/{key}")
+	@Produces(MediaType.APPLICATION_JSON)
+	public CompletionStage<Response> actorSubmapOpAsync(@PathParam("type") String type,
+			@PathParam("id") String id, @PathParam("key") String key, JsonValue params);
+
 	@DELETE
 	@Path("actor/{type}/{id}/state/{key}")
-	@Retry(maxRetries = KarConfig.MAX_RETRY)
 	@Produces(MediaType.TEXT_PLAIN)
 	public Response actorDeleteState(@PathParam("type") String type, @PathParam("id") String id,
 			@PathParam("key") String key, @QueryParam("nilOnAbsent") boolean nilOnAbsent);
 
+	@DELETE
+	@Path("actor/{type}/{id}/state/{key}")
+	@Produces(MediaType.TEXT_PLAIN)
+	public CompletionStage<Response> actorDeleteStateAsync(@PathParam("type") String type, @PathParam("id") String id,
+			@PathParam("key") String key, @QueryParam("nilOnAbsent") boolean nilOnAbsent);
+
 	@GET
 	@Path("actor/{type}/{id}/state")
-	@Retry(maxRetries = KarConfig.MAX_RETRY)
 	public Response actorGetAllState(@PathParam("type") String type, @PathParam("id") String id);
 
+	@GET
+	@Path("actor/{type}/{id}/state")
+	public CompletionStage<Response> actorGetAllStateAsync(@PathParam("type") String type, @PathParam("id") String id);
+
 	@POST
 	@Path("actor/{type}/{id}/state")
-	@Retry(maxRetries = KarConfig.MAX_RETRY)
 	@Produces(MediaType.TEXT_PLAIN)
 	public Response actorMapop(@PathParam("type") String type, @PathParam("id") String id, JsonValue params);
 
+	@POST
+	@Path("actor/{type}/{id}/state")
+	@Produces(MediaType.TEXT_PLAIN)
+	public CompletionStage<Response> actorMapopAsync(@PathParam("type") String type,
+			@PathParam("id") String id, JsonValue params);
+
 	@DELETE
 	@Path("actor/{type}/{id}/state")
-	@Retry(maxRetries = KarConfig.MAX_RETRY)
 	@Produces(MediaType.TEXT_PLAIN)
 	public Response actorDeleteAllState(@PathParam("type") String type, @PathParam("id") String id);
 
+	@DELETE
+	@Path("actor/{type}/{id}/state")
+	@Produces(MediaType.TEXT_PLAIN)
+	public CompletionStage<Response> actorDeleteAllStateAsync(@PathParam("type") String type, @PathParam("id") String id);
+
 	@DELETE
 	@Path("actor/{type}/{id}")
-	@Retry(maxRetries = KarConfig.MAX_RETRY)
 	@Produces(MediaType.TEXT_PLAIN)
 	public Response actorDelete(@PathParam("type") String type, @PathParam("id") String id);
 
@@ -321,60 +422,87 @@ public interface KarRest extends AutoCloseable {
 
 	@GET
 	@Path("actor/{type}/{id}/events")
-	@Retry(maxRetries = KarConfig.MAX_RETRY)
 	public Response actorGetAllSubscriptions(@PathParam("type") String type, @PathParam("id") String id);
 
+	@GET
+	@Path("actor/{type}/{id}/events")
+	public CompletionStage<Response> actorGetAllSubscriptionsAsync(@PathParam("type") String type,
+			@PathParam("id") String id);
+
 	@DELETE
 	@Path("actor/{type}/{id}/events")
-	@Retry(maxRetries = KarConfig.MAX_RETRY)
 	public Response actorCancelAllSubscriptions(@PathParam("type") String type, @PathParam("id") String id);
 
+	@DELETE
+	@Path("actor/{type}/{id}/events")
+	public CompletionStage<Response> actorCancelAllSubscriptionsAsync(@PathParam("type") String type,
+			@PathParam("id") String id);
+
 	@GET
 	@Path("actor/{type}/{id}/events/{subscriptionId}")
-	@Retry(maxRetries = KarConfig.MAX_RETRY)
 	public Response actorGetSubscription(@PathParam("type") String type, @PathParam("id") String id,
 			@PathParam("subscriptionId") String subscriptionId);
 
+	@GET
+	@Path("actor/{type}/{id}/events/{subscriptionId}")
+	public CompletionStage<Response> actorGetSubscriptionAsync(@PathParam("type") String type, @PathParam("id") String id,
+			@PathParam("subscriptionId") String subscriptionId);
+
 	@DELETE
 	@Path("actor/{type}/{id}/events/{subscriptionId}")
-	@Retry(maxRetries = KarConfig.MAX_RETRY)
 	public Response actorCancelSubscription(@PathParam("type") String type, @PathParam("id") String id,
 			@PathParam("subscriptionId") String subscriptionId);
 
+	@DELETE
+	@Path("actor/{type}/{id}/events/{subscriptionId}")
+	public CompletionStage<Response> actorCancelSubscriptionAsync(@PathParam("type") String type,
+			@PathParam("id") String id, @PathParam("subscriptionId") String subscriptionId);
+
 	@PUT
 	@Path("actor/{type}/{id}/events/{subscriptionId}")
-	@Retry(maxRetries = KarConfig.MAX_RETRY)
 	public Response actorSubscribe(@PathParam("type") String type, @PathParam("id") String id,
 			@PathParam("subscriptionId") String subscriptionId, JsonValue data);
 
+	@PUT
+	@Path("actor/{type}/{id}/events/{subscriptionId}")
+	public CompletionStage<Response> actorSubscribeAsync(@PathParam("type") String type, @PathParam("id") String id,
+			@PathParam("subscriptionId") String subscriptionId, JsonValue data);
+
 	@PUT
 	@Path("event/{topic}")
-	@Retry(maxRetries = KarConfig.MAX_RETRY)
 	public Response eventCreateTopic(@PathParam("topic") String topic, JsonValue configuration);
 
+	@PUT
+	@Path("event/{topic}")
+	public CompletionStage<Response> eventCreateTopicAsync(@PathParam("topic") String topic, JsonValue configuration);
+
 	@DELETE
 	@Path("event/{topic}")
-	@Retry(maxRetries = KarConfig.MAX_RETRY)
 	public Response eventDeleteTopic(@PathParam("topic") String topic);
 
+	@DELETE
+	@Path("event/{topic}")
+	public CompletionStage<Response> eventDeleteTopicAsync(@PathParam("topic") String topic);
+
 	@POST
 	@Path("event/{topic}/publish")
-	@Retry(maxRetries = KarConfig.MAX_RETRY)
 	public Response eventPublish(@PathParam("topic") String topic, JsonValue event);
 
+	@POST
+	@Path("event/{topic}/publish")
+	public CompletionStage<Response> eventPublishAsync(@PathParam("topic") String topic, JsonValue event);
+
 	/*
 	 * System
 	 */
 
 	@POST
 	@Path("system/shutdown")
-	@Retry(maxRetries = KarConfig.MAX_RETRY)
 	public Response shutdown();
 
 	@GET
 	@Path("system/information/{component}")
 	@ClientHeaderParam(name = "Accepts", value = "application/json")
-	@Retry(maxRetries = KarConfig.MAX_RETRY)
 	@Produces(MediaType.APPLICATION_JSON)
 	public Response systemInformation(@PathParam("component") String component);
 }
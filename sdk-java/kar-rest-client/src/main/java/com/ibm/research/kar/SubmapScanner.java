@@ -0,0 +1,173 @@
+/*
+ * Copyright IBM Corporation 2020,2021
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ibm.research.kar;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import javax.json.Json;
+import javax.json.JsonString;
+import javax.json.JsonValue;
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.Response;
+
+import com.ibm.research.kar.actor.ActorRef;
+import com.ibm.research.kar.actor.SubmapPage;
+
+/**
+ * Reads a submap a page at a time.
+ *
+ * The sidecar has no operation to page through a submap, so pages are sliced
+ * from the sorted keys of the submap, the cursor being the last key of the
+ * previous page, and the values of a page are fetched with pipelined
+ * asynchronous gets. A page carries the keys read for it, so that the page
+ * that follows it is sliced from the same keys: a scan that goes from page to
+ * page costs one keys operation rather than one per page. A scan resumed from
+ * a bare cursor reads the keys again.
+ */
+final class SubmapScanner {
+
+	private SubmapScanner() {
+	}
+
+	static SubmapPage keys(KarRest client, ActorRef actor, String submap, String cursor, int limit) {
+		return page(sortedKeys(client, actor, submap), cursor, limit);
+	}
+
+	static SubmapPage nextKeys(KarRest client, ActorRef actor, String submap, SubmapPage previous, int limit) {
+		if (!previous.hasMore()) {
+			return new SubmapPage(Collections.<String>emptyList(), null);
+		}
+		List<String> keys = previous instanceof KeyPage ? ((KeyPage) previous).snapshot
+				: sortedKeys(client, actor, submap);
+		return page(keys, previous.getCursor(), limit);
+	}
+
+	// the page of the sorted keys that follows cursor
+	private static SubmapPage page(List<String> keys, String cursor, int limit) {
+		int start = 0;
+		if (cursor != null) {
+			int i = Collections.binarySearch(keys, cursor);
+			start = i >= 0 ? i + 1 : -i - 1;
+		}
+		int end = Math.min(start + Math.max(limit, 1), keys.size());
+		List<String> page = new ArrayList<String>(keys.subList(start, end));
+		if (end >= keys.size()) {
+			return new SubmapPage(page, null);
+		}
+		return new KeyPage(page, keys.get(end - 1), keys);
+	}
+
+	static Iterator<Entry<String, JsonValue>> entries(KarRest client, ActorRef actor, String submap, int pageSize) {
+		return new EntryIterator(client, actor, submap, Math.max(pageSize, 1));
+	}
+
+	private static List<String> sortedKeys(KarRest client, ActorRef actor, String submap) {
+		Response response = client.actorSubmapOp(actor.getType(), actor.getId(), submap,
+				Json.createObjectBuilder().add("op", "keys").build());
+		List<String> keys = new ArrayList<String>();
+		for (JsonString key : response.readEntity(JsonValue.class).asJsonArray().getValuesAs(JsonString.class)) {
+			keys.add(key.getString());
+		}
+		Collections.sort(keys);
+		return keys;
+	}
+
+	// a page that is not the last, with the keys it was sliced from
+	private static final class KeyPage extends SubmapPage {
+		final List<String> snapshot;
+
+		KeyPage(List<String> keys, String cursor, List<String> snapshot) {
+			super(keys, cursor);
+			this.snapshot = snapshot;
+		}
+	}
+
+	private static final class EntryIterator implements Iterator<Entry<String, JsonValue>> {
+		private final KarRest client;
+		private final ActorRef actor;
+		private final String submap;
+		private final int pageSize;
+
+		private Iterator<Entry<String, JsonValue>> page = Collections.emptyIterator();
+		private boolean more = true;
+
+		// all keys, fetched with the first page
+		private List<String> keys;
+		private int offset;
+
+		EntryIterator(KarRest client, ActorRef actor, String submap, int pageSize) {
+			this.client = client;
+			this.actor = actor;
+			this.submap = submap;
+			this.pageSize = pageSize;
+		}
+
+		@Override
+		public boolean hasNext() {
+			while (!page.hasNext() && more) {
+				page = nextPage().entrySet().iterator();
+			}
+			return page.hasNext();
+		}
+
+		@Override
+		public Entry<String, JsonValue> next() {
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			return page.next();
+		}
+
+		private Map<String, JsonValue> nextPage() {
+			if (keys == null) {
+				keys = sortedKeys(client, actor, submap);
+			}
+			int end = Math.min(offset + pageSize, keys.size());
+			List<CompletableFuture<Response>> gets = new ArrayList<CompletableFuture<Response>>(end - offset);
+			for (int i = offset; i < end; i++) {
+				gets.add(client.actorGetWithSubkeyStateAsync(actor.getType(), actor.getId(), submap, keys.get(i), false)
+						.toCompletableFuture());
+			}
+			Map<String, JsonValue> result = new LinkedHashMap<String, JsonValue>();
+			for (int i = offset; i < end; i++) {
+				try {
+					result.put(keys.get(i), gets.get(i - offset).join().readEntity(JsonValue.class));
+				} catch (CompletionException e) {
+					Throwable cause = e.getCause();
+					if (cause instanceof WebApplicationException
+							&& ((WebApplicationException) cause).getResponse().getStatus() == 404) {
+						// removed since the keys were read
+						continue;
+					}
+					throw cause instanceof RuntimeException ? (RuntimeException) cause : e;
+				}
+			}
+			offset = end;
+			more = offset < keys.size();
+			return result;
+		}
+	}
+}
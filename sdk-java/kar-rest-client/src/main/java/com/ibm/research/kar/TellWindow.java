@@ -0,0 +1,78 @@
+/*
+ * Copyright IBM Corporation 2020,2021
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ibm.research.kar;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Semaphore;
+import java.util.function.Supplier;
+
+import javax.ws.rs.core.Response;
+
+/**
+ * Bounds the number of asynchronous tells in flight to the sidecar.
+ *
+ * Submitting a tell takes a slot in the window and the slot is returned when
+ * the sidecar acknowledges the tell. When the window is full, submit blocks the
+ * caller until a slot frees up, so a producer cannot queue an unbounded number
+ * of requests.
+ */
+final class TellWindow {
+
+	private final Semaphore slots;
+
+	TellWindow(int size) {
+		this.slots = new Semaphore(Math.max(size, 1));
+	}
+
+	/**
+	 * Send a tell once a slot is available.
+	 *
+	 * @param send Sends the tell
+	 * @return A stage that completes when the sidecar has accepted the tell, or
+	 *         exceptionally if the tell could not be delivered
+	 */
+	CompletionStage<Void> submit(Supplier<CompletionStage<Response>> send) {
+		CompletableFuture<Void> result = new CompletableFuture<Void>();
+		try {
+			slots.acquire();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			result.completeExceptionally(e);
+			return result;
+		}
+
+		CompletionStage<Response> sent;
+		try {
+			sent = send.get();
+		} catch (RuntimeException e) {
+			slots.release();
+			result.completeExceptionally(e);
+			return result;
+		}
+		sent.whenComplete((response, t) -> {
+			slots.release();
+			if (t != null) {
+				result.completeExceptionally(t instanceof CompletionException && t.getCause() != null ? t.getCause() : t);
+			} else {
+				result.complete(null);
+			}
+		});
+		return result;
+	}
+}
@@ -41,7 +41,10 @@ public abstract class ActorSkeleton implements ActorInstance {
 
   @Override
   public String getSession() {
-    return session;
+    // the session of the invocation running on this thread; the runtime does not
+    // write it into the instance
+    String current = InvocationContext.sessionOf(this);
+    return current != null ? current : session;
   }
 
   @Override
@@ -0,0 +1,167 @@
+/*
+ * Copyright IBM Corporation 2020,2021
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ibm.research.kar.actor;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+
+/**
+ * The context of the actor method invocation running on the current thread.
+ *
+ * The actor runtime establishes a context around each invocation of an actor
+ * method instead of writing the session into the shared actor instance, so
+ * that invocations of the same instance may safely run on different threads.
+ * The context is thread-scoped. The stages returned by the asynchronous
+ * operations of the SDK are bound to the context of their caller with
+ * {@link #bind(CompletionStage)}, so the actions an actor method chains onto
+ * them run within its invocation. Code that continues an invocation on
+ * another thread by other means (for example with an async action on its own
+ * executor) can capture the context with {@link #current()} and reinstate it
+ * with {@link #enter(InvocationContext)}, or run its actions on
+ * {@link #executor(Executor)}.
+ */
+public final class InvocationContext {
+  private static final ThreadLocal<InvocationContext> CURRENT = new ThreadLocal<InvocationContext>();
+
+  private final ActorRef actor;
+  private final String session;
+  private final long deadline;
+  private final String traceId;
+
+  /**
+   * @param actor    The actor instance being invoked
+   * @param session  The session of the invocation
+   * @param deadline The time in milliseconds since the epoch by which the
+   *                 invocation should complete, or 0 if there is none
+   * @param traceId  The trace identifier of the invocation, or null
+   */
+  public InvocationContext(ActorRef actor, String session, long deadline, String traceId) {
+    this.actor = actor;
+    this.session = session;
+    this.deadline = deadline;
+    this.traceId = traceId;
+  }
+
+  public ActorRef getActor() { return this.actor; }
+
+  public String getSession() { return this.session; }
+
+  public long getDeadline() { return this.deadline; }
+
+  public String getTraceId() { return this.traceId; }
+
+  /**
+   * @return The context of the invocation running on the current thread, or
+   *         null if there is none
+   */
+  public static InvocationContext current() {
+    return CURRENT.get();
+  }
+
+  /**
+   * Make a context current on this thread.
+   *
+   * @param context The context, or null to clear the current context
+   * @return The previously current context, to be passed to {@link #exit(InvocationContext)}
+   */
+  public static InvocationContext enter(InvocationContext context) {
+    InvocationContext previous = CURRENT.get();
+    if (context == null) {
+      CURRENT.remove();
+    } else {
+      CURRENT.set(context);
+    }
+    return previous;
+  }
+
+  /**
+   * Restore the context that was current before the matching
+   * {@link #enter(InvocationContext)}.
+   *
+   * @param previous The value returned by enter
+   */
+  public static void exit(InvocationContext previous) {
+    if (previous == null) {
+      CURRENT.remove();
+    } else {
+      CURRENT.set(previous);
+    }
+  }
+
+  /**
+   * Wrap an executor so that the tasks it runs see this context as current,
+   * for example to continue an invocation in a CompletionStage callback:
+   * {@code stage.thenApplyAsync(fn, InvocationContext.current().executor(pool))}.
+   *
+   * @param executor The executor that runs the tasks
+   * @return An executor that runs each task within this context
+   */
+  public Executor executor(Executor executor) {
+    return task -> executor.execute(() -> {
+      InvocationContext previous = enter(this);
+      try {
+        task.run();
+      } finally {
+        exit(previous);
+      }
+    });
+  }
+
+  /**
+   * Bind a stage to this context: the returned stage completes with stage,
+   * within this context, so that the actions chained onto it that run when it
+   * completes see this context as current.
+   *
+   * @param stage A stage that may complete on another thread
+   * @return A stage that completes with stage within this context
+   */
+  public <T> CompletionStage<T> bind(CompletionStage<T> stage) {
+    CompletableFuture<T> bound = new CompletableFuture<T>();
+    stage.whenComplete((value, t) -> {
+      InvocationContext previous = enter(this);
+      try {
+        if (t != null) {
+          bound.completeExceptionally(t);
+        } else {
+          bound.complete(value);
+        }
+      } finally {
+        exit(previous);
+      }
+    });
+    return bound;
+  }
+
+  /**
+   * @param actor An actor instance
+   * @return The session of the invocation of actor running on the current
+   *         thread, or null if the current thread is not invoking actor
+   */
+  public static String sessionOf(ActorRef actor) {
+    InvocationContext context = CURRENT.get();
+    if (context != null && context.actor == actor) {
+      return context.session;
+    }
+    return null;
+  }
+
+  public String toString() {
+    return "{" + " actor: " + this.actor + ", session: " + this.session + ", deadline: " + this.deadline
+    + ", traceId: " + this.traceId + "}";
+  }
+}
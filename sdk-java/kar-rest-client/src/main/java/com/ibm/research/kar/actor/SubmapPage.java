@@ -0,0 +1,49 @@
+/*
+ * Copyright IBM Corporation 2020,2021
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ibm.research.kar.actor;
+
+import java.util.List;
+
+/**
+ * A page of the keys of a submap. The SDK may return a subclass that carries
+ * what it needs to fetch the page that follows.
+ */
+public class SubmapPage {
+  private final List<String> keys;
+  private final String cursor;
+
+  public SubmapPage(List<String> keys, String cursor) {
+    this.keys = keys;
+    this.cursor = cursor;
+  }
+
+  /**
+   * @return The keys of this page
+   */
+  public final List<String> getKeys() { return this.keys; }
+
+  /**
+   * @return The cursor to pass to fetch the next page, or null if this is the last page
+   */
+  public final String getCursor() { return this.cursor; }
+
+  public final boolean hasMore() { return this.cursor != null; }
+
+  public final String toString() {
+    return "{" + " keys: " + this.keys + ", cursor: " + this.cursor + "}";
+  }
+}
@@ -16,18 +16,66 @@
 
 package com.ibm.research.kar.actor.exceptions;
 
+import java.io.PrintStream;
+import java.io.PrintWriter;
+
 public class ActorMethodInvocationException extends ActorException {
 	private static final long serialVersionUID = 6289655259906138150L;
 
+	// class name of the exception thrown by the actor method, if known
+	private final String code;
+
+	// stack trace of the exception thrown by the actor method, if it was sent
+	private final String remoteStackTrace;
+
 	public ActorMethodInvocationException() {
-		super();
+		this(null, null, null);
 	}
 
 	public ActorMethodInvocationException(String errorMessage) {
-		super(errorMessage);
+		this(errorMessage, null, null);
 	}
 
 	public ActorMethodInvocationException(String errorMessage, Throwable cause) {
 		super(errorMessage, cause);
+		this.code = null;
+		this.remoteStackTrace = null;
+	}
+
+	public ActorMethodInvocationException(String errorMessage, String code, String remoteStackTrace) {
+		super(errorMessage);
+		this.code = code;
+		this.remoteStackTrace = remoteStackTrace;
+	}
+
+	/**
+	 * @return The class name of the exception thrown by the actor method, or null
+	 */
+	public String getCode() {
+		return code;
+	}
+
+	/**
+	 * @return The stack trace of the exception thrown by the actor method, or
+	 *         null if the actor runtime did not include it
+	 */
+	public String getRemoteStackTrace() {
+		return remoteStackTrace;
+	}
+
+	@Override
+	public void printStackTrace(PrintStream s) {
+		super.printStackTrace(s);
+		if (remoteStackTrace != null) {
+			s.print("Remote stack trace: " + remoteStackTrace);
+		}
+	}
+
+	@Override
+	public void printStackTrace(PrintWriter s) {
+		super.printStackTrace(s);
+		if (remoteStackTrace != null) {
+			s.print("Remote stack trace: " + remoteStackTrace);
+		}
 	}
 }
@@ -34,6 +34,13 @@ import org.glassfish.json.jaxrs.JsonValueBodyWriter;
 public class Kar extends com.ibm.research.kar.Kar {
 
 	public static void init() {
+		KarRest client = Kar.buildTransportClient();
+		if (client != null) {
+			// alternative transports need neither the REST client nor its serializers
+			Kar.setRestClient(client);
+			return;
+		}
+
 		RestClientBuilder builder = RestClientBuilder.newBuilder().baseUri(Kar.getUri());
 		// If running in standalone mode, add JsonValue serializers by hand
 		if (!Kar.isRunningEmbedded()) {
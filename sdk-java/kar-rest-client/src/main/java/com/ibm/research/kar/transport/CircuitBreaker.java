@@ -0,0 +1,182 @@
+/*
+ * Copyright IBM Corporation 2020,2021
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ibm.research.kar.transport;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Logger;
+
+/**
+ * Tracks the health of the sidecar as seen by the requests of a client.
+ *
+ * The breaker opens after a number of consecutive failed or slow requests.
+ * While it is open, requests fail fast with a CircuitOpenException. Once the
+ * open interval has elapsed the breaker is half-open: the next request is let
+ * through as a probe and the others keep failing fast until the probe
+ * completes. A successful probe closes the breaker and a failed one opens it
+ * again.
+ *
+ * While the breaker is closed, admitting a request and recording its outcome
+ * take no lock; the monitor is taken only to change state and to admit or
+ * settle a probe.
+ */
+public final class CircuitBreaker {
+
+	private static final Logger logger = Logger.getLogger(CircuitBreaker.class.getName());
+
+	public enum State {
+		CLOSED, OPEN, HALF_OPEN
+	}
+
+	private final int failureThreshold;
+	private final long slowCallNanos;
+	private final long openNanos;
+
+	// written with the monitor held
+	private volatile State state = State.CLOSED;
+	private volatile long openedAt;
+
+	private final AtomicInteger consecutiveFailures = new AtomicInteger();
+
+	// guarded by this
+	private boolean probing;
+
+	private final LongAdder rejected = new LongAdder();
+	private final LongAdder trips = new LongAdder();
+
+	/**
+	 * @param failureThreshold Consecutive failed or slow requests that open the
+	 *                         breaker (0 disables the breaker)
+	 * @param slowCallMillis   Requests taking longer than this count as failures
+	 *                         (0 disables the latency check)
+	 * @param openMillis       Time the breaker stays open before a probe
+	 */
+	public CircuitBreaker(int failureThreshold, long slowCallMillis, long openMillis) {
+		this.failureThreshold = failureThreshold;
+		this.slowCallNanos = slowCallMillis * 1_000_000;
+		this.openNanos = openMillis * 1_000_000;
+	}
+
+	/**
+	 * @return The current state of the breaker.
+	 */
+	public State getState() {
+		State current = state;
+		if (current == State.OPEN && System.nanoTime() - openedAt >= openNanos) {
+			return State.HALF_OPEN;
+		}
+		return current;
+	}
+
+	/**
+	 * @return Whether requests are currently being rejected.
+	 */
+	public boolean isOpen() {
+		return getState() == State.OPEN;
+	}
+
+	/**
+	 * @return The number of requests rejected while the breaker was open.
+	 */
+	public long getRejected() {
+		return rejected.sum();
+	}
+
+	/**
+	 * @return The number of times the breaker has opened.
+	 */
+	public long getTrips() {
+		return trips.sum();
+	}
+
+	// admit a request, or throw if the breaker is open; returns true if the request is a probe
+	boolean acquire() {
+		if (failureThreshold <= 0 || state == State.CLOSED) {
+			return false;
+		}
+		synchronized (this) {
+			if (state == State.CLOSED) {
+				return false;
+			}
+			if (state == State.OPEN && System.nanoTime() - openedAt >= openNanos) {
+				state = State.HALF_OPEN;
+			}
+			if (state == State.HALF_OPEN && !probing) {
+				probing = true;
+				return true;
+			}
+		}
+		rejected.increment();
+		throw new CircuitOpenException("The KAR sidecar is unavailable; circuit breaker is " + state);
+	}
+
+	void onSuccess(boolean probe, long elapsedNanos) {
+		if (slowCallNanos > 0 && elapsedNanos > slowCallNanos) {
+			onFailure(probe);
+			return;
+		}
+		if (probe) {
+			synchronized (this) {
+				probing = false;
+				consecutiveFailures.set(0);
+				state = State.CLOSED;
+			}
+			logger.info("Circuit breaker closed: the KAR sidecar is reachable again");
+		} else if (consecutiveFailures.get() != 0 && state == State.CLOSED) {
+			// read first so that a healthy stream of requests does not write the shared counter
+			consecutiveFailures.set(0);
+		}
+	}
+
+	void onFailure(boolean probe) {
+		if (failureThreshold <= 0) {
+			return;
+		}
+		if (probe) {
+			synchronized (this) {
+				probing = false;
+				open();
+			}
+		} else if (state == State.CLOSED && consecutiveFailures.incrementAndGet() >= failureThreshold) {
+			synchronized (this) {
+				if (state == State.CLOSED) {
+					open();
+				}
+			}
+		}
+	}
+
+	// a request that was admitted but not measured, e.g. a non-sidecar failure
+	void onIgnored(boolean probe) {
+		if (probe) {
+			synchronized (this) {
+				probing = false;
+			}
+		}
+	}
+
+	// must hold the lock
+	private void open() {
+		if (state == State.CLOSED) {
+			logger.warning("Circuit breaker opened after " + consecutiveFailures.get() + " failed requests to the KAR sidecar");
+			trips.increment();
+		}
+		openedAt = System.nanoTime();
+		state = State.OPEN;
+		consecutiveFailures.set(0);
+	}
+}
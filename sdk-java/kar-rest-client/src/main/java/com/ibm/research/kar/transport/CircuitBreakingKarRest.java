@@ -0,0 +1,165 @@
+/*
+ * Copyright IBM Corporation 2020,2021
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ibm.research.kar.transport;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+
+import javax.ws.rs.Path;
+import javax.ws.rs.ProcessingException;
+import javax.ws.rs.WebApplicationException;
+
+import com.ibm.research.kar.KarRest;
+
+/**
+ * Guards the requests of a KarRest client with a CircuitBreaker.
+ *
+ * Transport failures and 502, 503 and 504 responses count as failures; other
+ * error responses come from a healthy sidecar and count as successes. Actor
+ * and service calls are answered by the actor or service they invoke, whose
+ * latency, timeouts and error statuses say nothing about the sidecar: only a
+ * failure to connect to the sidecar counts against them, and they are not
+ * subject to the latency check.
+ */
+public final class CircuitBreakingKarRest implements InvocationHandler {
+
+	// whether the sidecar answers a request itself rather than forwarding it to an actor or service
+	private static final Map<Method, Boolean> answeredBySidecar = classifyMethods();
+
+	private final KarRest delegate;
+	private final CircuitBreaker breaker;
+
+	private CircuitBreakingKarRest(KarRest delegate, CircuitBreaker breaker) {
+		this.delegate = delegate;
+		this.breaker = breaker;
+	}
+
+	/**
+	 * Wrap a KarRest client so that its requests go through a circuit breaker.
+	 *
+	 * @param delegate The client that sends the requests
+	 * @param breaker  The circuit breaker
+	 * @return The guarded client
+	 */
+	public static KarRest wrap(KarRest delegate, CircuitBreaker breaker) {
+		return (KarRest) Proxy.newProxyInstance(KarRest.class.getClassLoader(), new Class<?>[] { KarRest.class },
+				new CircuitBreakingKarRest(delegate, breaker));
+	}
+
+	@Override
+	public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+		Boolean bySidecar = answeredBySidecar.get(method);
+		if (bySidecar == null) {
+			switch (method.getName()) {
+			case "equals":
+				return proxy == args[0];
+			case "hashCode":
+				return System.identityHashCode(proxy);
+			case "toString":
+				return "CircuitBreaking" + delegate;
+			default:
+				return call(method, args);
+			}
+		}
+
+		boolean probe = breaker.acquire();
+		long start = System.nanoTime();
+		if (CompletionStage.class.isAssignableFrom(method.getReturnType())) {
+			CompletionStage<?> stage;
+			try {
+				stage = (CompletionStage<?>) call(method, args);
+			} catch (Throwable t) {
+				record(t, probe, bySidecar, start);
+				return failed(t);
+			}
+			return stage.whenComplete((value, t) -> record(t instanceof CompletionException && t.getCause() != null ? t.getCause() : t,
+					probe, bySidecar, start));
+		}
+
+		try {
+			Object result = call(method, args);
+			record(null, probe, bySidecar, start);
+			return result;
+		} catch (Throwable t) {
+			record(t, probe, bySidecar, start);
+			throw t;
+		}
+	}
+
+	private void record(Throwable t, boolean probe, boolean bySidecar, long start) {
+		if (t == null) {
+			breaker.onSuccess(probe, bySidecar ? System.nanoTime() - start : 0);
+		} else if (isSidecarFailure(t, bySidecar)) {
+			breaker.onFailure(probe);
+		} else if (t instanceof WebApplicationException) {
+			breaker.onSuccess(probe, bySidecar ? System.nanoTime() - start : 0);
+		} else {
+			breaker.onIgnored(probe);
+		}
+	}
+
+	private static boolean isSidecarFailure(Throwable t, boolean bySidecar) {
+		if (t instanceof LimitExceededException) {
+			// shed by the client, not failed by the sidecar
+			return false;
+		}
+		if (!bySidecar) {
+			// timeouts and error statuses of calls come from the actor or service called
+			return RetryingKarRest.isConnectFailure(t);
+		}
+		if (t instanceof ProcessingException) {
+			return true;
+		}
+		if (t instanceof WebApplicationException) {
+			int status = ((WebApplicationException) t).getResponse().getStatus();
+			return status == 502 || status == 503 || status == 504;
+		}
+		return false;
+	}
+
+	private static CompletionStage<Object> failed(Throwable t) {
+		CompletableFuture<Object> result = new CompletableFuture<Object>();
+		result.completeExceptionally(t);
+		return result;
+	}
+
+	private Object call(Method method, Object[] args) throws Throwable {
+		try {
+			return method.invoke(delegate, args);
+		} catch (InvocationTargetException e) {
+			throw e.getCause();
+		}
+	}
+
+	private static Map<Method, Boolean> classifyMethods() {
+		Map<Method, Boolean> bySidecar = new HashMap<Method, Boolean>();
+		for (Method method : KarRest.class.getMethods()) {
+			Path path = method.getAnnotation(Path.class);
+			if (path != null) {
+				bySidecar.put(method, !path.value().contains("/call/"));
+			}
+		}
+		return bySidecar;
+	}
+}
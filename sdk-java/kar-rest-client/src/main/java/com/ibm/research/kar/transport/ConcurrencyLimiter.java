@@ -0,0 +1,223 @@
+/*
+ * Copyright IBM Corporation 2020,2021
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ibm.research.kar.transport;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Adapts the number of requests in flight to the sidecar to its observed
+ * round-trip time, in the style of a gradient limit algorithm.
+ *
+ * Samples are taken in windows of at least 100ms and 16 requests. The lowest
+ * mean RTT of any window is taken as the sidecar's unloaded latency; it drifts
+ * slowly upwards so that a lasting change in latency is eventually accepted. The
+ * mean RTT of each window is compared to it: while they are within a tolerance
+ * the limit grows by about the square root of itself per window, and as the
+ * recent RTT rises beyond the tolerance the limit shrinks in proportion, by at
+ * most a half per window. The limit only grows while the client actually uses
+ * at least half of it. Requests beyond the limit wait in a bounded FIFO queue
+ * and are shed with a LimitExceededException when the queue is full or they
+ * have waited too long. Asynchronous requests wait without holding a thread:
+ * they are sent by whichever request makes room for them.
+ */
+public final class ConcurrencyLimiter {
+
+	private static final int WINDOW_SAMPLES = 16;
+	private static final long WINDOW_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+	private static final double SMOOTHING = 0.2;
+	private static final double TOLERANCE = 1.5;
+	private static final double BASELINE_DRIFT = 1.005;
+
+	private static final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(r -> {
+		Thread t = new Thread(r, "kar-limiter");
+		t.setDaemon(true);
+		return t;
+	});
+
+	private final int minLimit;
+	private final int maxLimit;
+	private final int maxQueue;
+	private final long queueTimeoutNanos;
+
+	// guarded by this
+	private double limit;
+	private int inFlight;
+	private int queued;
+	private long shed;
+	private double baselineRtt;
+	private long windowSum;
+	private int windowCount;
+	private long windowStart = System.nanoTime();
+	private final ArrayDeque<CompletableFuture<Long>> waiters = new ArrayDeque<CompletableFuture<Long>>();
+
+	/**
+	 * @param initialLimit       The limit before any RTT is observed
+	 * @param minLimit           The lowest the limit may go
+	 * @param maxLimit           The highest the limit may go
+	 * @param maxQueue           The number of requests that may wait for the limit
+	 * @param queueTimeoutMillis How long a request may wait for the limit
+	 */
+	public ConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, int maxQueue, long queueTimeoutMillis) {
+		this.minLimit = Math.max(minLimit, 1);
+		this.maxLimit = Math.max(maxLimit, this.minLimit);
+		this.maxQueue = Math.max(maxQueue, 0);
+		this.queueTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(queueTimeoutMillis);
+		this.limit = Math.min(Math.max(initialLimit, this.minLimit), this.maxLimit);
+	}
+
+	/**
+	 * @return The current limit on requests in flight.
+	 */
+	public synchronized int getLimit() {
+		return (int) limit;
+	}
+
+	/**
+	 * @return The number of requests in flight.
+	 */
+	public synchronized int getInFlight() {
+		return inFlight;
+	}
+
+	/**
+	 * @return The number of requests waiting for the limit.
+	 */
+	public synchronized int getQueued() {
+		return queued;
+	}
+
+	/**
+	 * @return The number of requests shed because the limit was reached.
+	 */
+	public synchronized long getShed() {
+		return shed;
+	}
+
+	// wait for room under the limit; returns the start time of the request
+	long acquire() {
+		CompletableFuture<Long> slot = acquireAsync();
+		try {
+			return slot.get();
+		} catch (ExecutionException e) {
+			throw (LimitExceededException) e.getCause();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			if (withdraw(slot)) {
+				throw new LimitExceededException("Interrupted waiting to send a request to the KAR sidecar");
+			}
+			// admitted or shed meanwhile
+			try {
+				return slot.join();
+			} catch (CompletionException ce) {
+				throw (LimitExceededException) ce.getCause();
+			}
+		}
+	}
+
+	// complete with the start time of the request once there is room under the limit
+	CompletableFuture<Long> acquireAsync() {
+		CompletableFuture<Long> slot;
+		synchronized (this) {
+			if (inFlight < (int) limit && waiters.isEmpty()) {
+				inFlight++;
+				return CompletableFuture.completedFuture(System.nanoTime());
+			}
+			if (queued >= maxQueue) {
+				shed++;
+				slot = new CompletableFuture<Long>();
+				slot.completeExceptionally(new LimitExceededException("Too many requests to the KAR sidecar: " + inFlight
+						+ " in flight, " + queued + " queued"));
+				return slot;
+			}
+			slot = new CompletableFuture<Long>();
+			waiters.add(slot);
+			queued++;
+		}
+		timer.schedule(() -> expire(slot), queueTimeoutNanos, TimeUnit.NANOSECONDS);
+		return slot;
+	}
+
+	// shed a request that is still waiting when its queue timeout expires
+	private void expire(CompletableFuture<Long> slot) {
+		if (withdraw(slot)) {
+			slot.completeExceptionally(
+					new LimitExceededException("Timed out waiting to send a request to the KAR sidecar: " + getInFlight() + " in flight"));
+		}
+	}
+
+	// remove a request from the queue unless it has already left it
+	private synchronized boolean withdraw(CompletableFuture<Long> slot) {
+		if (!waiters.remove(slot)) {
+			return false;
+		}
+		queued--;
+		shed++;
+		return true;
+	}
+
+	// a request has completed; sample its RTT unless it failed before reaching the sidecar
+	void release(long start, boolean sample) {
+		List<CompletableFuture<Long>> admitted = null;
+		synchronized (this) {
+			int wasInFlight = inFlight--;
+			if (sample) {
+				long now = System.nanoTime();
+				windowSum += now - start;
+				windowCount++;
+				if (windowCount >= WINDOW_SAMPLES && now - windowStart >= WINDOW_NANOS) {
+					update((double) windowSum / windowCount, wasInFlight);
+					windowSum = 0;
+					windowCount = 0;
+					windowStart = now;
+				}
+			}
+			while (inFlight < (int) limit && !waiters.isEmpty()) {
+				if (admitted == null) {
+					admitted = new ArrayList<CompletableFuture<Long>>();
+				}
+				admitted.add(waiters.poll());
+				queued--;
+				inFlight++;
+			}
+		}
+		if (admitted != null) {
+			// outside the lock: the waiters send their requests from here
+			for (CompletableFuture<Long> slot : admitted) {
+				slot.complete(System.nanoTime());
+			}
+		}
+	}
+
+	private void update(double shortRtt, int observedInFlight) {
+		baselineRtt = baselineRtt == 0 ? shortRtt : Math.min(shortRtt, baselineRtt * BASELINE_DRIFT);
+		double gradient = Math.max(0.5, Math.min(1.0, TOLERANCE * baselineRtt / shortRtt));
+		double newLimit = limit * gradient + Math.sqrt(limit);
+		if (observedInFlight < limit / 2) {
+			// the client is not using the limit, so its RTT says nothing about a higher one
+			newLimit = Math.min(newLimit, limit);
+		}
+		limit = Math.min(maxLimit, Math.max(minLimit, limit * (1 - SMOOTHING) + newLimit * SMOOTHING));
+	}
+}
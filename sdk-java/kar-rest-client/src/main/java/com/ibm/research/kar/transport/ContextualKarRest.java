@@ -0,0 +1,84 @@
+/*
+ * Copyright IBM Corporation 2020,2021
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ibm.research.kar.transport;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.concurrent.CompletionStage;
+
+import com.ibm.research.kar.KarRest;
+import com.ibm.research.kar.actor.InvocationContext;
+
+/**
+ * Binds the asynchronous requests of a KarRest client to the actor invocation
+ * that sends them.
+ *
+ * A request sent from within an invocation returns a stage that completes
+ * within that invocation's context, so the actions that the actor method
+ * chains onto it see its session even though the response arrives on a
+ * transport thread.
+ */
+public final class ContextualKarRest implements InvocationHandler {
+
+	private final KarRest delegate;
+
+	private ContextualKarRest(KarRest delegate) {
+		this.delegate = delegate;
+	}
+
+	/**
+	 * Wrap a KarRest client so that its asynchronous requests complete within
+	 * the invocation context of their sender.
+	 *
+	 * @param delegate The client that sends the requests
+	 * @return The wrapped client
+	 */
+	public static KarRest wrap(KarRest delegate) {
+		return (KarRest) Proxy.newProxyInstance(KarRest.class.getClassLoader(), new Class<?>[] { KarRest.class },
+				new ContextualKarRest(delegate));
+	}
+
+	@Override
+	public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+		if (method.getDeclaringClass() == Object.class) {
+			switch (method.getName()) {
+			case "equals":
+				return proxy == args[0];
+			case "hashCode":
+				return System.identityHashCode(proxy);
+			default:
+				return "Contextual" + delegate;
+			}
+		}
+
+		Object result;
+		try {
+			result = method.invoke(delegate, args);
+		} catch (InvocationTargetException e) {
+			throw e.getCause();
+		}
+		if (result instanceof CompletionStage) {
+			InvocationContext context = InvocationContext.current();
+			if (context != null) {
+				return context.bind((CompletionStage<?>) result);
+			}
+		}
+		return result;
+	}
+}
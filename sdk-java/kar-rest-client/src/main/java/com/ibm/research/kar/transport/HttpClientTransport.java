@@ -0,0 +1,100 @@
+/*
+ * Copyright IBM Corporation 2020,2021
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ibm.research.kar.transport;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.ws.rs.ProcessingException;
+
+/**
+ * A KarTransport over a pool of java.net.http clients speaking HTTP/2
+ * cleartext (h2c) to the sidecar.
+ *
+ * Each client multiplexes its requests over a single connection, so a small
+ * pool is enough to carry many concurrent requests without head-of-line
+ * blocking behind slow calls. Requests are spread over the pool round-robin.
+ * java.net.http does not support h2c with prior knowledge: each connection
+ * starts as HTTP/1.1 and is upgraded by the sidecar.
+ */
+public final class HttpClientTransport implements KarTransport {
+
+	private final URI baseUri;
+	private final HttpClient[] clients;
+	private final AtomicInteger next = new AtomicInteger();
+	private final Duration timeout;
+
+	/**
+	 * @param baseUri       The base URI of the sidecar
+	 * @param poolSize      The number of clients, and thus connections
+	 * @param timeoutMillis The connect and request timeout (0 means none)
+	 */
+	public HttpClientTransport(URI baseUri, int poolSize, int timeoutMillis) {
+		this.baseUri = baseUri;
+		this.timeout = timeoutMillis > 0 ? Duration.ofMillis(timeoutMillis) : null;
+		this.clients = new HttpClient[Math.max(poolSize, 1)];
+		for (int i = 0; i < clients.length; i++) {
+			HttpClient.Builder builder = HttpClient.newBuilder().version(HttpClient.Version.HTTP_2)
+					.followRedirects(HttpClient.Redirect.NEVER);
+			if (timeout != null) {
+				builder.connectTimeout(timeout);
+			}
+			clients[i] = builder.build();
+		}
+	}
+
+	@Override
+	public CompletableFuture<TransportResponse> send(TransportRequest request) {
+		HttpRequest.Builder builder = HttpRequest.newBuilder(baseUri.resolve(request.getPath()));
+		for (Map.Entry<String, String> header : request.getHeaders().entrySet()) {
+			builder.header(header.getKey(), header.getValue());
+		}
+		byte[] body = request.getBody();
+		builder.method(request.getMethod(),
+				body != null ? HttpRequest.BodyPublishers.ofByteArray(body) : HttpRequest.BodyPublishers.noBody());
+		long timeoutMillis = request.getTimeoutMillis(timeout != null ? timeout.toMillis() : 0);
+		if (timeoutMillis > 0) {
+			builder.timeout(Duration.ofMillis(timeoutMillis));
+		}
+
+		HttpClient client = clients[Math.floorMod(next.getAndIncrement(), clients.length)];
+		return client.sendAsync(builder.build(), HttpResponse.BodyHandlers.ofByteArray()).handle((response, t) -> {
+			if (t != null) {
+				Throwable cause = t instanceof CompletionException && t.getCause() != null ? t.getCause() : t;
+				throw new ProcessingException(request + ": " + cause, cause);
+			}
+			return new TransportResponse(response.statusCode(), response.headers().map(), response.body());
+		});
+	}
+
+	@Override
+	public void close() {
+		// java.net.http clients release their connections once they are unreachable
+	}
+
+	@Override
+	public String toString() {
+		return "HttpClientTransport[" + baseUri + ", " + clients.length + " connections]";
+	}
+}
@@ -0,0 +1,279 @@
+/*
+ * Copyright IBM Corporation 2020,2021
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ibm.research.kar.transport;
+
+import java.io.ByteArrayOutputStream;
+import java.io.UnsupportedEncodingException;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+
+import javax.json.Json;
+import javax.json.JsonValue;
+import javax.json.JsonWriter;
+import javax.json.JsonWriterFactory;
+import javax.ws.rs.Consumes;
+import javax.ws.rs.HeaderParam;
+import javax.ws.rs.HttpMethod;
+import javax.ws.rs.Path;
+import javax.ws.rs.PathParam;
+import javax.ws.rs.ProcessingException;
+import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.Response;
+
+import org.eclipse.microprofile.rest.client.annotation.ClientHeaderParam;
+
+import com.ibm.research.kar.KarRest;
+
+/**
+ * Implements KarRest on top of a KarTransport.
+ *
+ * The JAX-RS annotations of each KarRest method are interpreted once, when
+ * the proxy class is initialized, into a template for its requests. Like the
+ * MicroProfile REST client, responses with a status of 400 or above are
+ * reported as a WebApplicationException carrying the response, and failures
+ * to exchange a request as a ProcessingException.
+ */
+public final class KarRestProxy implements InvocationHandler {
+
+	private static final JsonWriterFactory writerFactory = Json.createWriterFactory(null);
+
+	private static final Map<Method, RequestTemplate> templates = createTemplates();
+
+	private final KarTransport transport;
+
+	private KarRestProxy(KarTransport transport) {
+		this.transport = transport;
+	}
+
+	/**
+	 * Create a KarRest client that sends its requests through a transport.
+	 *
+	 * @param transport The transport; it is closed when the client is closed
+	 */
+	public static KarRest create(KarTransport transport) {
+		return (KarRest) Proxy.newProxyInstance(KarRest.class.getClassLoader(), new Class<?>[] { KarRest.class },
+				new KarRestProxy(transport));
+	}
+
+	@Override
+	public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+		RequestTemplate template = templates.get(method);
+		if (template == null) {
+			switch (method.getName()) {
+			case "close":
+				transport.close();
+				return null;
+			case "equals":
+				return proxy == args[0];
+			case "hashCode":
+				return System.identityHashCode(proxy);
+			case "toString":
+				return "KarRest[" + transport + "]";
+			default:
+				throw new UnsupportedOperationException(method.toString());
+			}
+		}
+
+		if (template.async) {
+			CompletableFuture<Response> result = new CompletableFuture<Response>();
+			transport.send(template.bind(args)).whenComplete((r, t) -> {
+				if (t != null) {
+					result.completeExceptionally(unwrap(t));
+				} else if (r.getStatus() >= 400) {
+					result.completeExceptionally(new WebApplicationException(r));
+				} else {
+					result.complete(r);
+				}
+			});
+			return result;
+		}
+
+		TransportResponse r = transport.exchange(template.bind(args));
+		if (r.getStatus() >= 400) {
+			throw new WebApplicationException(r);
+		}
+		return r;
+	}
+
+	private static Throwable unwrap(Throwable t) {
+		if (t instanceof CompletionException && t.getCause() != null) {
+			t = t.getCause();
+		}
+		if (t instanceof RuntimeException || t instanceof Error) {
+			return t;
+		}
+		return new ProcessingException(t);
+	}
+
+	private static Map<Method, RequestTemplate> createTemplates() {
+		Map<Method, RequestTemplate> templates = new HashMap<Method, RequestTemplate>();
+		for (Method method : KarRest.class.getMethods()) {
+			if (method.isAnnotationPresent(Path.class)) {
+				templates.put(method, new RequestTemplate(method));
+			}
+		}
+		return templates;
+	}
+
+	// The shape of the requests of one KarRest method
+	private static final class RequestTemplate {
+		final String httpMethod;
+		final boolean async;
+		// literal path segments interleaved with the indices of path parameters
+		final List<Object> path = new ArrayList<Object>();
+		final List<String> queryNames = new ArrayList<String>();
+		final List<Integer> queryIndices = new ArrayList<Integer>();
+		final List<String> headerNames = new ArrayList<String>();
+		final List<Integer> headerIndices = new ArrayList<Integer>();
+		final Map<String, String> headers = new LinkedHashMap<String, String>();
+		final int bodyIndex;
+
+		RequestTemplate(Method method) {
+			String verb = null;
+			for (Annotation a : method.getAnnotations()) {
+				HttpMethod hm = a.annotationType().getAnnotation(HttpMethod.class);
+				if (hm != null) {
+					verb = hm.value();
+				}
+			}
+			this.httpMethod = verb;
+			this.async = CompletionStage.class.isAssignableFrom(method.getReturnType());
+
+			Map<String, Integer> pathParams = new HashMap<String, Integer>();
+			int body = -1;
+			Annotation[][] parameterAnnotations = method.getParameterAnnotations();
+			for (int i = 0; i < parameterAnnotations.length; i++) {
+				boolean isEntity = true;
+				for (Annotation a : parameterAnnotations[i]) {
+					if (a instanceof PathParam) {
+						pathParams.put(((PathParam) a).value(), i);
+						isEntity = false;
+					} else if (a instanceof QueryParam) {
+						queryNames.add(((QueryParam) a).value());
+						queryIndices.add(i);
+						isEntity = false;
+					} else if (a instanceof HeaderParam) {
+						headerNames.add(((HeaderParam) a).value());
+						headerIndices.add(i);
+						isEntity = false;
+					}
+				}
+				if (isEntity) {
+					body = i;
+				}
+			}
+			this.bodyIndex = body;
+
+			String template = KarRest.class.getAnnotation(Path.class).value() + "/" + method.getAnnotation(Path.class).value();
+			int start = 0;
+			for (int open = template.indexOf('{'); open >= 0; open = template.indexOf('{', start)) {
+				int close = template.indexOf('}', open);
+				path.add(template.substring(start, open));
+				path.add(pathParams.get(template.substring(open + 1, close)));
+				start = close + 1;
+			}
+			path.add(template.substring(start));
+
+			Produces produces = method.isAnnotationPresent(Produces.class) ? method.getAnnotation(Produces.class)
+					: KarRest.class.getAnnotation(Produces.class);
+			headers.put("Accept", String.join(",", produces.value()));
+			if (bodyIndex >= 0) {
+				Consumes consumes = method.isAnnotationPresent(Consumes.class) ? method.getAnnotation(Consumes.class)
+						: KarRest.class.getAnnotation(Consumes.class);
+				headers.put("Content-Type", consumes.value()[0]);
+			}
+			for (ClientHeaderParam header : method.getAnnotationsByType(ClientHeaderParam.class)) {
+				headers.put(header.name(), String.join(",", header.value()));
+			}
+		}
+
+		TransportRequest bind(Object[] args) {
+			StringBuilder sb = new StringBuilder(128);
+			for (Object part : path) {
+				if (part instanceof Integer) {
+					encodePathSegment(sb, String.valueOf(args[(Integer) part]));
+				} else {
+					sb.append((String) part);
+				}
+			}
+			char separator = '?';
+			for (int i = 0; i < queryIndices.size(); i++) {
+				Object value = args[queryIndices.get(i)];
+				if (value != null) {
+					sb.append(separator).append(queryNames.get(i)).append('=').append(encodeQueryValue(value.toString()));
+					separator = '&';
+				}
+			}
+			byte[] body = null;
+			if (bodyIndex >= 0 && args[bodyIndex] != null) {
+				ByteArrayOutputStream out = new ByteArrayOutputStream(256);
+				try (JsonWriter writer = writerFactory.createWriter(out, StandardCharsets.UTF_8)) {
+					writer.write((JsonValue) args[bodyIndex]);
+				}
+				body = out.toByteArray();
+			}
+			Map<String, String> requestHeaders = Collections.unmodifiableMap(headers);
+			if (!headerIndices.isEmpty()) {
+				requestHeaders = new LinkedHashMap<String, String>(headers);
+				for (int i = 0; i < headerIndices.size(); i++) {
+					Object value = args[headerIndices.get(i)];
+					if (value != null) {
+						requestHeaders.put(headerNames.get(i), value.toString());
+					}
+				}
+			}
+			return new TransportRequest(httpMethod, sb.toString(), requestHeaders, body);
+		}
+	}
+
+	private static final String HEX = "0123456789ABCDEF";
+
+	// percent-encode everything but the unreserved characters and the sub-delimiters allowed in a path segment
+	private static void encodePathSegment(StringBuilder sb, String value) {
+		for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+			char c = (char) (b & 0xff);
+			if ((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || "-._~!$&'()*+,;=:@".indexOf(c) >= 0) {
+				sb.append(c);
+			} else {
+				sb.append('%').append(HEX.charAt(c >> 4)).append(HEX.charAt(c & 0xf));
+			}
+		}
+	}
+
+	private static String encodeQueryValue(String value) {
+		try {
+			return URLEncoder.encode(value, "UTF-8");
+		} catch (UnsupportedEncodingException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright IBM Corporation 2020,2021
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ibm.research.kar.transport;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import javax.ws.rs.ProcessingException;
+
+/**
+ * A transport that carries the HTTP requests of the KAR REST API to the
+ * sidecar. KarRestProxy turns calls on a KarRest client into requests for a
+ * transport.
+ */
+public interface KarTransport extends AutoCloseable {
+
+	/**
+	 * Send a request to the sidecar.
+	 *
+	 * @param request The request
+	 * @return A future that completes with the response, whatever its status, or
+	 *         exceptionally with a javax.ws.rs.ProcessingException if the
+	 *         request could not be exchanged
+	 */
+	public CompletableFuture<TransportResponse> send(TransportRequest request);
+
+	/**
+	 * Send a request to the sidecar and wait for its response. Transports whose
+	 * exchanges block a thread run them on the calling thread.
+	 *
+	 * @param request The request
+	 * @return The response, whatever its status
+	 * @throws ProcessingException if the request could not be exchanged
+	 */
+	public default TransportResponse exchange(TransportRequest request) {
+		try {
+			return send(request).join();
+		} catch (CompletionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+			if (cause instanceof Error) {
+				throw (Error) cause;
+			}
+			throw new ProcessingException(cause);
+		}
+	}
+
+	@Override
+	public void close();
+}
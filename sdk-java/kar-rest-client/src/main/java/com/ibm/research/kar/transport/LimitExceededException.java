@@ -0,0 +1,32 @@
+/*
+ * Copyright IBM Corporation 2020,2021
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ibm.research.kar.transport;
+
+import javax.ws.rs.ProcessingException;
+
+/**
+ * Raised instead of sending a request to the sidecar when the client's
+ * concurrency limit is reached and the request cannot be queued.
+ */
+public class LimitExceededException extends ProcessingException {
+
+	private static final long serialVersionUID = 1L;
+
+	public LimitExceededException(String message) {
+		super(message);
+	}
+}
@@ -0,0 +1,148 @@
+/*
+ * Copyright IBM Corporation 2020,2021
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ibm.research.kar.transport;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+
+import javax.ws.rs.Path;
+import javax.ws.rs.WebApplicationException;
+
+import org.eclipse.microprofile.rest.client.annotation.ClientHeaderParam;
+
+import com.ibm.research.kar.KarRest;
+
+/**
+ * Bounds the requests of a KarRest client in flight with a
+ * ConcurrencyLimiter.
+ *
+ * Synchronous actor and service calls are not limited: they last as long as
+ * the method they invoke, which says nothing about the sidecar's load, and
+ * an actor method holding a slot while it waits for a nested call could
+ * starve that call of one. Tells, state, reminder, event and system requests
+ * are limited and their round trips drive the limit.
+ */
+public final class LimitingKarRest implements InvocationHandler {
+
+	private static final Map<Method, Boolean> limited = classifyMethods();
+
+	private final KarRest delegate;
+	private final ConcurrencyLimiter limiter;
+
+	private LimitingKarRest(KarRest delegate, ConcurrencyLimiter limiter) {
+		this.delegate = delegate;
+		this.limiter = limiter;
+	}
+
+	/**
+	 * Wrap a KarRest client so that its requests in flight are limited.
+	 *
+	 * @param delegate The client that sends the requests
+	 * @param limiter  The limiter
+	 * @return The limited client
+	 */
+	public static KarRest wrap(KarRest delegate, ConcurrencyLimiter limiter) {
+		return (KarRest) Proxy.newProxyInstance(KarRest.class.getClassLoader(), new Class<?>[] { KarRest.class },
+				new LimitingKarRest(delegate, limiter));
+	}
+
+	@Override
+	public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+		Boolean isLimited = limited.get(method);
+		if (isLimited == null) {
+			switch (method.getName()) {
+			case "equals":
+				return proxy == args[0];
+			case "hashCode":
+				return System.identityHashCode(proxy);
+			case "toString":
+				return "Limiting" + delegate;
+			default:
+				return call(method, args);
+			}
+		}
+		if (!isLimited) {
+			return call(method, args);
+		}
+
+		if (CompletionStage.class.isAssignableFrom(method.getReturnType())) {
+			// never block the caller, which may be a timer or a completion callback
+			return limiter.acquireAsync().thenCompose(start -> callAsync(method, args, start));
+		}
+
+		long start = limiter.acquire();
+		try {
+			Object result = call(method, args);
+			limiter.release(start, true);
+			return result;
+		} catch (Throwable t) {
+			limiter.release(start, reachedSidecar(t));
+			throw t;
+		}
+	}
+
+	private CompletionStage<Object> callAsync(Method method, Object[] args, long start) {
+		CompletionStage<?> stage;
+		try {
+			stage = (CompletionStage<?>) call(method, args);
+		} catch (Throwable t) {
+			limiter.release(start, false);
+			CompletableFuture<Object> failed = new CompletableFuture<Object>();
+			failed.completeExceptionally(t);
+			return failed;
+		}
+		return stage.whenComplete((value, t) -> limiter.release(start, reachedSidecar(t))).thenApply(value -> value);
+	}
+
+	// whether the request got a response, so that its round trip is a sample of the sidecar's latency
+	private static boolean reachedSidecar(Throwable t) {
+		if (t instanceof CompletionException && t.getCause() != null) {
+			t = t.getCause();
+		}
+		return t == null || t instanceof WebApplicationException;
+	}
+
+	private Object call(Method method, Object[] args) throws Throwable {
+		try {
+			return method.invoke(delegate, args);
+		} catch (InvocationTargetException e) {
+			throw e.getCause();
+		}
+	}
+
+	private static Map<Method, Boolean> classifyMethods() {
+		Map<Method, Boolean> limited = new HashMap<Method, Boolean>();
+		for (Method method : KarRest.class.getMethods()) {
+			Path path = method.getAnnotation(Path.class);
+			if (path != null) {
+				boolean async = false;
+				for (ClientHeaderParam header : method.getAnnotationsByType(ClientHeaderParam.class)) {
+					async |= "Pragma".equals(header.name()) && String.join(",", header.value()).contains("async");
+				}
+				limited.put(method, async || !path.value().contains("/call/"));
+			}
+		}
+		return limited;
+	}
+}
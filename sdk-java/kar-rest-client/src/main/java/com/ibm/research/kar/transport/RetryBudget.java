@@ -0,0 +1,117 @@
+/*
+ * Copyright IBM Corporation 2020,2021
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ibm.research.kar.transport;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounds the retries of requests to the sidecar to a fraction of the live
+ * traffic.
+ *
+ * Every request deposits a fraction of a retry into the budget and every
+ * retry withdraws a whole one, so retries cannot exceed that fraction of the
+ * requests no matter how many of them fail. A minimum number of retries per
+ * second is always allowed so that a lightly loaded client can still ride out
+ * a brief sidecar restart. The balance is capped at ten seconds worth of that
+ * minimum so that a long healthy period does not bank a retry storm.
+ *
+ * The budget takes no lock. Requests only count themselves; a withdrawal
+ * credits the requests and the time since the previous one to the balance,
+ * which is kept in thousandths of a retry.
+ */
+public final class RetryBudget {
+
+	private static final long RETRY = 1000;
+
+	private final long depositPerRequest;
+	private final long minPerMilli;
+	private final long maxBalance;
+
+	private final AtomicLong balance;
+	private final AtomicLong lastRefill;
+
+	// requests counted into the balance so far
+	private final AtomicLong credited = new AtomicLong();
+
+	private final LongAdder requests = new LongAdder();
+	private final LongAdder retries = new LongAdder();
+	private final LongAdder exhausted = new LongAdder();
+
+	/**
+	 * @param percent            Retries allowed as a percentage of requests
+	 * @param minRetriesPerSecond Retries allowed per second regardless of traffic
+	 */
+	public RetryBudget(int percent, int minRetriesPerSecond) {
+		this.depositPerRequest = Math.max(percent, 0) * RETRY / 100;
+		this.minPerMilli = Math.max(minRetriesPerSecond, 0) * RETRY / 1000;
+		this.maxBalance = Math.max(10L * minRetriesPerSecond, 1L) * RETRY;
+		this.balance = new AtomicLong(maxBalance);
+		this.lastRefill = new AtomicLong(System.nanoTime());
+	}
+
+	// record the first attempt of a request
+	void deposit() {
+		requests.increment();
+	}
+
+	// withdraw a retry, returning false if the budget is exhausted
+	boolean tryWithdraw() {
+		long total = requests.sum();
+		long credit = Math.max(total - credited.getAndAccumulate(total, Math::max), 0) * depositPerRequest;
+		long now = System.nanoTime();
+		long last = lastRefill.get();
+		long millis = (now - last) / 1_000_000;
+		if (millis > 0 && lastRefill.compareAndSet(last, last + millis * 1_000_000)) {
+			credit += millis * minPerMilli;
+		}
+		for (;;) {
+			long current = balance.get();
+			long next = Math.min(current + credit, maxBalance);
+			if (next < RETRY) {
+				if (balance.compareAndSet(current, next)) {
+					exhausted.increment();
+					return false;
+				}
+			} else if (balance.compareAndSet(current, next - RETRY)) {
+				retries.increment();
+				return true;
+			}
+		}
+	}
+
+	/**
+	 * @return The number of requests sent to the sidecar, including retries.
+	 */
+	public long getAttempts() {
+		return requests.sum() + retries.sum();
+	}
+
+	/**
+	 * @return The number of retries sent to the sidecar.
+	 */
+	public long getRetries() {
+		return retries.sum();
+	}
+
+	/**
+	 * @return The number of retries abandoned because the budget was exhausted.
+	 */
+	public long getBudgetExhausted() {
+		return exhausted.sum();
+	}
+}
@@ -0,0 +1,223 @@
+/*
+ * Copyright IBM Corporation 2020,2021
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ibm.research.kar.transport;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.net.ConnectException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import javax.ws.rs.HttpMethod;
+import javax.ws.rs.Path;
+import javax.ws.rs.ProcessingException;
+import javax.ws.rs.WebApplicationException;
+
+import com.ibm.research.kar.KarRest;
+
+/**
+ * Retries the requests of a KarRest client within a RetryBudget, with
+ * exponential backoff and full jitter between attempts.
+ *
+ * Requests with an idempotent HTTP method (GET, HEAD, OPTIONS, PUT and
+ * DELETE) are retried when the sidecar cannot be reached or answers 502, 503
+ * or 504. Other requests (tells, map operations, publishes) and all actor and
+ * service calls, whatever their HTTP method, are retried only when the
+ * connection to the sidecar could not be established: otherwise the sidecar
+ * may already have acted on them, and a call may already have run user code
+ * that is not idempotent.
+ */
+public final class RetryingKarRest implements InvocationHandler {
+
+	private static final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(r -> {
+		Thread t = new Thread(r, "kar-retry");
+		t.setDaemon(true);
+		return t;
+	});
+
+	private static final Map<Method, Boolean> idempotent = classifyMethods();
+
+	private final KarRest delegate;
+	private final RetryBudget budget;
+	private final int maxRetries;
+	private final long baseBackoffMillis;
+	private final long maxBackoffMillis;
+
+	private RetryingKarRest(KarRest delegate, RetryBudget budget, int maxRetries, long baseBackoffMillis,
+			long maxBackoffMillis) {
+		this.delegate = delegate;
+		this.budget = budget;
+		this.maxRetries = maxRetries;
+		this.baseBackoffMillis = Math.max(baseBackoffMillis, 1);
+		this.maxBackoffMillis = Math.max(maxBackoffMillis, this.baseBackoffMillis);
+	}
+
+	/**
+	 * Wrap a KarRest client so that its requests are retried.
+	 *
+	 * @param delegate          The client that sends the requests
+	 * @param budget            The budget shared by all the retries of the client
+	 * @param maxRetries        The maximum number of retries of one request
+	 * @param baseBackoffMillis The backoff before the first retry
+	 * @param maxBackoffMillis  The maximum backoff before a retry
+	 * @return The retrying client
+	 */
+	public static KarRest wrap(KarRest delegate, RetryBudget budget, int maxRetries, long baseBackoffMillis,
+			long maxBackoffMillis) {
+		return (KarRest) Proxy.newProxyInstance(KarRest.class.getClassLoader(), new Class<?>[] { KarRest.class },
+				new RetryingKarRest(delegate, budget, maxRetries, baseBackoffMillis, maxBackoffMillis));
+	}
+
+	@Override
+	public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+		Boolean isIdempotent = idempotent.get(method);
+		if (isIdempotent == null) {
+			switch (method.getName()) {
+			case "equals":
+				return proxy == args[0];
+			case "hashCode":
+				return System.identityHashCode(proxy);
+			case "toString":
+				return "Retrying" + delegate;
+			default:
+				return call(method, args);
+			}
+		}
+
+		budget.deposit();
+		if (CompletionStage.class.isAssignableFrom(method.getReturnType())) {
+			CompletableFuture<Object> result = new CompletableFuture<Object>();
+			attemptAsync(method, args, isIdempotent, 0, result);
+			return result;
+		}
+
+		for (int retry = 0;; retry++) {
+			try {
+				return call(method, args);
+			} catch (Throwable t) {
+				if (!shouldRetry(t, isIdempotent, retry)) {
+					throw t;
+				}
+				try {
+					Thread.sleep(backoff(retry));
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					throw t;
+				}
+			}
+		}
+	}
+
+	private void attemptAsync(Method method, Object[] args, boolean isIdempotent, int retry,
+			CompletableFuture<Object> result) {
+		CompletionStage<?> stage;
+		try {
+			stage = (CompletionStage<?>) call(method, args);
+		} catch (Throwable t) {
+			retryAsync(method, args, isIdempotent, retry, result, t);
+			return;
+		}
+		stage.whenComplete((value, t) -> {
+			if (t == null) {
+				result.complete(value);
+			} else {
+				retryAsync(method, args, isIdempotent, retry, result,
+						t instanceof CompletionException && t.getCause() != null ? t.getCause() : t);
+			}
+		});
+	}
+
+	private void retryAsync(Method method, Object[] args, boolean isIdempotent, int retry,
+			CompletableFuture<Object> result, Throwable t) {
+		if (!shouldRetry(t, isIdempotent, retry)) {
+			result.completeExceptionally(t);
+			return;
+		}
+		timer.schedule(() -> attemptAsync(method, args, isIdempotent, retry + 1, result), backoff(retry),
+				TimeUnit.MILLISECONDS);
+	}
+
+	private Object call(Method method, Object[] args) throws Throwable {
+		try {
+			return method.invoke(delegate, args);
+		} catch (InvocationTargetException e) {
+			throw e.getCause();
+		}
+	}
+
+	private boolean shouldRetry(Throwable t, boolean isIdempotent, int retry) {
+		return retry < maxRetries && isRetryable(t, isIdempotent) && budget.tryWithdraw();
+	}
+
+	private static boolean isRetryable(Throwable t, boolean isIdempotent) {
+		if (t instanceof CircuitOpenException || t instanceof LimitExceededException) {
+			// fail fast while the sidecar is known to be unavailable or overloaded
+			return false;
+		}
+		if (t instanceof ProcessingException) {
+			return isIdempotent || isConnectFailure(t);
+		}
+		if (t instanceof WebApplicationException && isIdempotent) {
+			int status = ((WebApplicationException) t).getResponse().getStatus();
+			return status == 502 || status == 503 || status == 504;
+		}
+		return false;
+	}
+
+	// the request never reached the sidecar
+	static boolean isConnectFailure(Throwable t) {
+		for (; t != null; t = t.getCause()) {
+			if (t instanceof ConnectException) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	// full jitter: uniform in [0, min(max, base * 2^retry)]
+	private long backoff(int retry) {
+		long ceiling = retry >= 30 ? maxBackoffMillis : Math.min(maxBackoffMillis, baseBackoffMillis << retry);
+		return ThreadLocalRandom.current().nextLong(ceiling + 1);
+	}
+
+	private static Map<Method, Boolean> classifyMethods() {
+		Map<Method, Boolean> idempotent = new HashMap<Method, Boolean>();
+		for (Method method : KarRest.class.getMethods()) {
+			Path path = method.getAnnotation(Path.class);
+			for (Annotation a : method.getAnnotations()) {
+				HttpMethod hm = a.annotationType().getAnnotation(HttpMethod.class);
+				if (hm != null) {
+					String verb = hm.value();
+					// the verb of a call is the callee's business; it says nothing about idempotence
+					boolean isCall = path != null && path.value().contains("/call/");
+					idempotent.put(method, !isCall && !HttpMethod.POST.equals(verb) && !"PATCH".equals(verb));
+				}
+			}
+		}
+		return idempotent;
+	}
+}
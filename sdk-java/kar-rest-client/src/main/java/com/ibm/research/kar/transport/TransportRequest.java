@@ -0,0 +1,87 @@
+/*
+ * Copyright IBM Corporation 2020,2021
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ibm.research.kar.transport;
+
+import java.util.Map;
+
+import com.ibm.research.kar.KarRest;
+
+/**
+ * An HTTP request of the KAR REST API.
+ */
+public final class TransportRequest {
+
+	private final String method;
+	private final String path;
+	private final Map<String, String> headers;
+	private final byte[] body;
+
+	/**
+	 * @param method  The HTTP method
+	 * @param path    The path and query relative to the base URI of the sidecar,
+	 *                already encoded
+	 * @param headers The request headers
+	 * @param body    The request body, or null if there is none
+	 */
+	public TransportRequest(String method, String path, Map<String, String> headers, byte[] body) {
+		this.method = method;
+		this.path = path;
+		this.headers = headers;
+		this.body = body;
+	}
+
+	public String getMethod() {
+		return method;
+	}
+
+	public String getPath() {
+		return path;
+	}
+
+	public Map<String, String> getHeaders() {
+		return headers;
+	}
+
+	public byte[] getBody() {
+		return body;
+	}
+
+	/**
+	 * The time the caller waits for the response: the Kar-Timeout header of the
+	 * request if it is shorter than the timeout of the transport.
+	 *
+	 * @param timeoutMillis The timeout of the transport (0 means none)
+	 * @return The timeout of the request (0 means none)
+	 */
+	public long getTimeoutMillis(long timeoutMillis) {
+		String header = headers.get(KarRest.KAR_TIMEOUT_HEADER);
+		if (header != null) {
+			try {
+				long requested = Math.max(Long.parseLong(header), 1);
+				return timeoutMillis > 0 ? Math.min(timeoutMillis, requested) : requested;
+			} catch (NumberFormatException e) {
+				// not ours to enforce
+			}
+		}
+		return timeoutMillis;
+	}
+
+	@Override
+	public String toString() {
+		return method + " " + path;
+	}
+}
@@ -0,0 +1,325 @@
+/*
+ * Copyright IBM Corporation 2020,2021
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ibm.research.kar.transport;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.lang.annotation.Annotation;
+import java.net.URI;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import javax.json.Json;
+import javax.json.JsonReader;
+import javax.json.JsonReaderFactory;
+import javax.json.JsonValue;
+import javax.ws.rs.ProcessingException;
+import javax.ws.rs.core.EntityTag;
+import javax.ws.rs.core.GenericType;
+import javax.ws.rs.core.Link;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedHashMap;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.core.NewCookie;
+import javax.ws.rs.core.Response;
+
+/**
+ * A response received by a KarTransport.
+ *
+ * The entity is buffered, so it may be read any number of times. Entities can
+ * be read as String, JsonValue (or any of its subtypes), Integer, byte[] or
+ * InputStream, which covers every entity type of the KAR REST API. Headers are
+ * interpreted without a JAX-RS RuntimeDelegate, so no JAX-RS implementation is
+ * needed on the classpath.
+ */
+public class TransportResponse extends Response {
+
+	private static final JsonReaderFactory readerFactory = Json.createReaderFactory(null);
+
+	private final int status;
+	private final Map<String, List<String>> headers;
+	private final byte[] body;
+
+	/**
+	 * @param status  The HTTP status code
+	 * @param headers The response headers
+	 * @param body    The response body, empty if there is none
+	 */
+	public TransportResponse(int status, Map<String, List<String>> headers, byte[] body) {
+		this.status = status;
+		this.headers = new TreeMap<String, List<String>>(String.CASE_INSENSITIVE_ORDER);
+		this.headers.putAll(headers);
+		this.body = body;
+	}
+
+	@Override
+	public int getStatus() {
+		return status;
+	}
+
+	@Override
+	public StatusType getStatusInfo() {
+		Status known = Status.fromStatusCode(status);
+		if (known != null) {
+			return known;
+		}
+		return new StatusType() {
+			@Override
+			public int getStatusCode() {
+				return status;
+			}
+
+			@Override
+			public Status.Family getFamily() {
+				return Status.Family.familyOf(status);
+			}
+
+			@Override
+			public String getReasonPhrase() {
+				return "";
+			}
+		};
+	}
+
+	@Override
+	public Object getEntity() {
+		return hasEntity() ? new ByteArrayInputStream(body) : null;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public <T> T readEntity(Class<T> entityType) {
+		if (entityType == String.class) {
+			return (T) new String(body, charset());
+		} else if (JsonValue.class.isAssignableFrom(entityType)) {
+			try (JsonReader reader = readerFactory.createReader(new ByteArrayInputStream(body), charset())) {
+				JsonValue value = reader.readValue();
+				if (!entityType.isInstance(value)) {
+					throw new ProcessingException("Cannot read " + value.getValueType() + " as " + entityType.getName());
+				}
+				return (T) value;
+			} catch (javax.json.JsonException e) {
+				throw new ProcessingException(e);
+			}
+		} else if (entityType == Integer.class || entityType == int.class) {
+			try {
+				return (T) Integer.valueOf(new String(body, charset()).trim());
+			} catch (NumberFormatException e) {
+				throw new ProcessingException(e);
+			}
+		} else if (entityType == byte[].class) {
+			return (T) body;
+		} else if (entityType == InputStream.class) {
+			return (T) new ByteArrayInputStream(body);
+		}
+		throw new ProcessingException("No reader for entity of type " + entityType.getName());
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public <T> T readEntity(GenericType<T> entityType) {
+		return (T) readEntity(entityType.getRawType());
+	}
+
+	@Override
+	public <T> T readEntity(Class<T> entityType, Annotation[] annotations) {
+		return readEntity(entityType);
+	}
+
+	@Override
+	public <T> T readEntity(GenericType<T> entityType, Annotation[] annotations) {
+		return readEntity(entityType);
+	}
+
+	@Override
+	public boolean hasEntity() {
+		return body.length > 0;
+	}
+
+	@Override
+	public boolean bufferEntity() {
+		return true;
+	}
+
+	@Override
+	public void close() {
+	}
+
+	@Override
+	public MediaType getMediaType() {
+		String contentType = getHeaderString("Content-Type");
+		if (contentType == null) {
+			return null;
+		}
+		String[] parts = contentType.split(";");
+		String[] types = parts[0].trim().split("/", 2);
+		Map<String, String> parameters = new HashMap<String, String>();
+		for (int i = 1; i < parts.length; i++) {
+			String[] kv = parts[i].trim().split("=", 2);
+			if (kv.length == 2) {
+				parameters.put(kv[0].trim().toLowerCase(Locale.ROOT), kv[1].trim().replace("\"", ""));
+			}
+		}
+		return new MediaType(types[0], types.length > 1 ? types[1] : MediaType.MEDIA_TYPE_WILDCARD, parameters);
+	}
+
+	private Charset charset() {
+		MediaType type = getMediaType();
+		String name = type != null ? type.getParameters().get(MediaType.CHARSET_PARAMETER) : null;
+		try {
+			return name != null ? Charset.forName(name) : StandardCharsets.UTF_8;
+		} catch (IllegalArgumentException e) {
+			return StandardCharsets.UTF_8;
+		}
+	}
+
+	@Override
+	public Locale getLanguage() {
+		String language = getHeaderString("Content-Language");
+		return language != null ? Locale.forLanguageTag(language) : null;
+	}
+
+	@Override
+	public int getLength() {
+		String length = getHeaderString("Content-Length");
+		try {
+			return length != null ? Integer.parseInt(length.trim()) : -1;
+		} catch (NumberFormatException e) {
+			return -1;
+		}
+	}
+
+	@Override
+	public Set<String> getAllowedMethods() {
+		String allow = getHeaderString("Allow");
+		if (allow == null) {
+			return Collections.emptySet();
+		}
+		Set<String> methods = new HashSet<String>();
+		for (String method : allow.split(",")) {
+			methods.add(method.trim().toUpperCase(Locale.ROOT));
+		}
+		return methods;
+	}
+
+	@Override
+	public Map<String, NewCookie> getCookies() {
+		return Collections.emptyMap();
+	}
+
+	@Override
+	public EntityTag getEntityTag() {
+		String tag = getHeaderString("ETag");
+		if (tag == null) {
+			return null;
+		}
+		boolean weak = tag.startsWith("W/");
+		String value = weak ? tag.substring(2) : tag;
+		return new EntityTag(value.replace("\"", ""), weak);
+	}
+
+	@Override
+	public Date getDate() {
+		return getDateHeader("Date");
+	}
+
+	@Override
+	public Date getLastModified() {
+		return getDateHeader("Last-Modified");
+	}
+
+	private Date getDateHeader(String name) {
+		String value = getHeaderString(name);
+		if (value == null) {
+			return null;
+		}
+		try {
+			return Date.from(ZonedDateTime.parse(value, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant());
+		} catch (RuntimeException e) {
+			return null;
+		}
+	}
+
+	@Override
+	public URI getLocation() {
+		String location = getHeaderString("Location");
+		return location != null ? URI.create(location) : null;
+	}
+
+	@Override
+	public Set<Link> getLinks() {
+		return Collections.emptySet();
+	}
+
+	@Override
+	public boolean hasLink(String relation) {
+		return false;
+	}
+
+	@Override
+	public Link getLink(String relation) {
+		return null;
+	}
+
+	@Override
+	public Link.Builder getLinkBuilder(String relation) {
+		return null;
+	}
+
+	@Override
+	public MultivaluedMap<String, Object> getMetadata() {
+		MultivaluedMap<String, Object> metadata = new MultivaluedHashMap<String, Object>();
+		for (Map.Entry<String, List<String>> entry : headers.entrySet()) {
+			metadata.addAll(entry.getKey(), entry.getValue().toArray());
+		}
+		return metadata;
+	}
+
+	@Override
+	public MultivaluedMap<String, String> getStringHeaders() {
+		MultivaluedMap<String, String> stringHeaders = new MultivaluedHashMap<String, String>();
+		for (Map.Entry<String, List<String>> entry : headers.entrySet()) {
+			stringHeaders.addAll(entry.getKey(), entry.getValue());
+		}
+		return stringHeaders;
+	}
+
+	@Override
+	public String getHeaderString(String name) {
+		List<String> values = headers.get(name);
+		if (values == null) {
+			return null;
+		}
+		return values.size() == 1 ? values.get(0) : String.join(",", values);
+	}
+
+	@Override
+	public String toString() {
+		return "TransportResponse{status=" + status + ", length=" + body.length + "}";
+	}
+}
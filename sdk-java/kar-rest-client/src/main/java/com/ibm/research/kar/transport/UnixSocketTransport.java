@@ -0,0 +1,385 @@
+/*
+ * Copyright IBM Corporation 2020,2021
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ibm.research.kar.transport;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Method;
+import java.net.ProtocolFamily;
+import java.net.SocketAddress;
+import java.net.SocketTimeoutException;
+import java.net.StandardProtocolFamily;
+import java.nio.channels.Channels;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.ws.rs.ProcessingException;
+
+/**
+ * A KarTransport that speaks HTTP/1.1 to the sidecar over a Unix domain
+ * socket, avoiding the loopback TCP stack.
+ *
+ * Unix domain socket channels need Java 16. The SDK compiles for Java 11, so
+ * the channel is opened reflectively; constructing the transport on an older
+ * JVM fails with an UnsupportedOperationException. Connections are kept alive
+ * and reused; at most poolSize idle connections are retained. Synchronous
+ * requests run on the calling thread. Asynchronous requests block a thread of
+ * the transport for their duration; at most maxRequests of them are in flight
+ * and the others wait for a thread.
+ *
+ * A request sent on an idle connection that the sidecar has meanwhile closed
+ * is resent on a new connection if the request could not be written, or if
+ * it is idempotent; otherwise the sidecar may have acted on it and the
+ * failure is reported.
+ */
+public final class UnixSocketTransport implements KarTransport {
+
+	private final SocketAddress address;
+	private final ProtocolFamily family;
+	private final Method open;
+	private final int poolSize;
+	private final long timeoutMillis;
+	private final ConcurrentLinkedDeque<Connection> idle = new ConcurrentLinkedDeque<Connection>();
+	private final AtomicInteger idleCount = new AtomicInteger();
+	private final ExecutorService executor;
+	private final ScheduledExecutorService timer;
+
+	/**
+	 * @param socketPath    The path of the Unix domain socket of the sidecar
+	 * @param poolSize      The maximum number of idle connections to retain
+	 * @param maxRequests   The maximum number of asynchronous requests in flight
+	 * @param timeoutMillis The request timeout (0 means none)
+	 */
+	public UnixSocketTransport(String socketPath, int poolSize, int maxRequests, int timeoutMillis) {
+		try {
+			Class<?> addressClass = Class.forName("java.net.UnixDomainSocketAddress");
+			this.address = (SocketAddress) addressClass.getMethod("of", Path.class).invoke(null, Paths.get(socketPath));
+			this.family = StandardProtocolFamily.valueOf("UNIX");
+			this.open = SocketChannel.class.getMethod("open", ProtocolFamily.class);
+		} catch (ReflectiveOperationException | IllegalArgumentException e) {
+			throw new UnsupportedOperationException("Unix domain sockets are not supported by this JVM (" + Runtime.version() + ")", e);
+		}
+		this.poolSize = Math.max(poolSize, 1);
+		this.timeoutMillis = timeoutMillis;
+		int threads = Math.max(maxRequests, 1);
+		ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+				new LinkedBlockingQueue<Runnable>(), r -> {
+					Thread t = new Thread(r, "kar-unix-socket-transport");
+					t.setDaemon(true);
+					return t;
+				});
+		executor.allowCoreThreadTimeOut(true);
+		this.executor = executor;
+		this.timer = Executors.newSingleThreadScheduledExecutor(r -> {
+			Thread t = new Thread(r, "kar-unix-socket-timeout");
+			t.setDaemon(true);
+			return t;
+		});
+	}
+
+	@Override
+	public CompletableFuture<TransportResponse> send(TransportRequest request) {
+		return CompletableFuture.supplyAsync(() -> exchange(request), executor);
+	}
+
+	@Override
+	public TransportResponse exchange(TransportRequest request) {
+		try {
+			return exchangeOrResend(request);
+		} catch (IOException e) {
+			throw new ProcessingException(request + ": " + e, e);
+		}
+	}
+
+	private TransportResponse exchangeOrResend(TransportRequest request) throws IOException {
+		Connection connection = idle.pollFirst();
+		if (connection != null) {
+			idleCount.decrementAndGet();
+			try {
+				return exchange(connection, request);
+			} catch (StaleConnectionException e) {
+				// the sidecar closed the idle connection; resend only if that cannot repeat the request
+				if (!e.unsent && !isIdempotent(request)) {
+					throw e;
+				}
+			}
+		}
+		return exchange(connect(), request);
+	}
+
+	// the verb of a call is the callee's business; it says nothing about idempotence
+	private static boolean isIdempotent(TransportRequest request) {
+		switch (request.getMethod()) {
+		case "GET":
+		case "HEAD":
+		case "OPTIONS":
+		case "PUT":
+		case "DELETE":
+			return !request.getPath().contains("/call/");
+		default:
+			return false;
+		}
+	}
+
+	private TransportResponse exchange(Connection connection, TransportRequest request) throws IOException {
+		long requestTimeoutMillis = request.getTimeoutMillis(timeoutMillis);
+		ScheduledFuture<?> timeout = requestTimeoutMillis > 0
+				? timer.schedule(connection::expire, requestTimeoutMillis, TimeUnit.MILLISECONDS)
+				: null;
+		boolean reusable = false;
+		try {
+			try {
+				connection.write(request);
+			} catch (IOException e) {
+				if (connection.reused && !connection.expired) {
+					throw new StaleConnectionException(true, e);
+				}
+				throw e;
+			}
+			TransportResponse response = connection.read(request.getMethod());
+			reusable = connection.keepAlive;
+			return response;
+		} catch (IOException e) {
+			if (connection.expired) {
+				throw new SocketTimeoutException(request + " timed out after " + requestTimeoutMillis + "ms");
+			}
+			throw e;
+		} finally {
+			if (timeout != null) {
+				timeout.cancel(false);
+			}
+			if (reusable && connection.channel.isOpen() && idleCount.incrementAndGet() <= poolSize) {
+				connection.reused = true;
+				idle.offerFirst(connection);
+			} else {
+				if (reusable) {
+					idleCount.decrementAndGet();
+				}
+				connection.close();
+			}
+		}
+	}
+
+	private Connection connect() throws IOException {
+		SocketChannel channel;
+		try {
+			channel = (SocketChannel) open.invoke(null, family);
+		} catch (ReflectiveOperationException e) {
+			throw new IOException(e);
+		}
+		try {
+			channel.connect(address);
+		} catch (IOException e) {
+			channel.close();
+			throw e;
+		}
+		return new Connection(channel);
+	}
+
+	@Override
+	public void close() {
+		for (Connection connection = idle.pollFirst(); connection != null; connection = idle.pollFirst()) {
+			connection.close();
+		}
+		executor.shutdown();
+		timer.shutdown();
+	}
+
+	@Override
+	public String toString() {
+		return "UnixSocketTransport[" + address + "]";
+	}
+
+	// the connection was closed by the sidecar before any of the response was received
+	private static final class StaleConnectionException extends IOException {
+		private static final long serialVersionUID = 1L;
+
+		// whether the request could not be written, so the sidecar cannot have acted on it
+		final boolean unsent;
+
+		StaleConnectionException(boolean unsent, IOException cause) {
+			super("Connection closed by the sidecar", cause);
+			this.unsent = unsent;
+		}
+	}
+
+	// A keep-alive HTTP/1.1 connection
+	private static final class Connection {
+		final SocketChannel channel;
+		final InputStream in;
+		final OutputStream out;
+		boolean keepAlive;
+		// whether the connection was taken from the idle pool
+		boolean reused;
+		volatile boolean expired;
+
+		Connection(SocketChannel channel) {
+			this.channel = channel;
+			this.in = new BufferedInputStream(Channels.newInputStream(channel), 8192);
+			this.out = new BufferedOutputStream(Channels.newOutputStream(channel), 8192);
+		}
+
+		void expire() {
+			expired = true;
+			close();
+		}
+
+		void close() {
+			try {
+				channel.close();
+			} catch (IOException e) {
+				// nothing to do
+			}
+		}
+
+		void write(TransportRequest request) throws IOException {
+			StringBuilder head = new StringBuilder(256);
+			head.append(request.getMethod()).append(" /").append(request.getPath()).append(" HTTP/1.1\r\n");
+			head.append("Host: localhost\r\n");
+			for (Map.Entry<String, String> header : request.getHeaders().entrySet()) {
+				head.append(header.getKey()).append(": ").append(header.getValue()).append("\r\n");
+			}
+			byte[] body = request.getBody();
+			if (body != null || !request.getMethod().equals("GET") && !request.getMethod().equals("HEAD")
+					&& !request.getMethod().equals("DELETE")) {
+				head.append("Content-Length: ").append(body != null ? body.length : 0).append("\r\n");
+			}
+			head.append("\r\n");
+			out.write(head.toString().getBytes(StandardCharsets.ISO_8859_1));
+			if (body != null) {
+				out.write(body);
+			}
+			out.flush();
+		}
+
+		TransportResponse read(String method) throws IOException {
+			String statusLine = readLine(true);
+			String[] parts = statusLine.split(" ", 3);
+			if (parts.length < 2 || !parts[0].startsWith("HTTP/1.")) {
+				throw new IOException("Malformed status line: " + statusLine);
+			}
+			int status = Integer.parseInt(parts[1]);
+			Map<String, List<String>> headers = new HashMap<String, List<String>>();
+			for (String line = readLine(false); !line.isEmpty(); line = readLine(false)) {
+				int colon = line.indexOf(':');
+				if (colon > 0) {
+					headers.computeIfAbsent(line.substring(0, colon).trim().toLowerCase(Locale.ROOT), k -> new ArrayList<String>())
+							.add(line.substring(colon + 1).trim());
+				}
+			}
+			if (status / 100 == 1) {
+				return read(method); // skip informational responses
+			}
+
+			String connection = header(headers, "connection");
+			keepAlive = !(connection != null && connection.equalsIgnoreCase("close")) && parts[0].equals("HTTP/1.1");
+
+			byte[] body;
+			String transferEncoding = header(headers, "transfer-encoding");
+			String contentLength = header(headers, "content-length");
+			if (method.equals("HEAD") || status == 204 || status == 304) {
+				body = new byte[0];
+			} else if (transferEncoding != null && transferEncoding.toLowerCase(Locale.ROOT).contains("chunked")) {
+				body = readChunked();
+			} else if (contentLength != null) {
+				body = readFully(Integer.parseInt(contentLength.trim()));
+			} else {
+				body = in.readAllBytes();
+				keepAlive = false;
+			}
+			return new TransportResponse(status, headers, body);
+		}
+
+		private static String header(Map<String, List<String>> headers, String name) {
+			List<String> values = headers.get(name);
+			return values != null ? values.get(0) : null;
+		}
+
+		private byte[] readChunked() throws IOException {
+			ByteArrayOutputStream body = new ByteArrayOutputStream();
+			for (;;) {
+				String size = readLine(false);
+				int semicolon = size.indexOf(';');
+				int length = Integer.parseInt((semicolon >= 0 ? size.substring(0, semicolon) : size).trim(), 16);
+				if (length == 0) {
+					// skip trailers
+					while (!readLine(false).isEmpty()) {
+					}
+					return body.toByteArray();
+				}
+				body.write(readFully(length));
+				readLine(false);
+			}
+		}
+
+		private byte[] readFully(int length) throws IOException {
+			byte[] bytes = new byte[length];
+			int n = 0;
+			while (n < length) {
+				int r = in.read(bytes, n, length - n);
+				if (r < 0) {
+					throw new EOFException("Connection closed after " + n + " of " + length + " bytes");
+				}
+				n += r;
+			}
+			return bytes;
+		}
+
+		private String readLine(boolean first) throws IOException {
+			StringBuilder sb = new StringBuilder(64);
+			for (;;) {
+				int c = in.read();
+				if (c < 0) {
+					if (first && sb.length() == 0) {
+						throw new StaleConnectionException(false, null);
+					}
+					throw new EOFException("Connection closed");
+				}
+				if (c == '\n') {
+					int length = sb.length();
+					if (length > 0 && sb.charAt(length - 1) == '\r') {
+						sb.setLength(length - 1);
+					}
+					return sb.toString();
+				}
+				sb.append((char) c);
+			}
+		}
+	}
+}